@@ -9,16 +9,61 @@ repositories {
     mavenCentral()
 }
 
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets["main"].output
+        runtimeClasspath += sourceSets["main"].output
+    }
+}
+
 dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.7.2")
     testImplementation("org.junit.jupiter:junit-jupiter-params:5.7.2")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.7.2")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.32")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.32")
 }
 
 tasks.getByName<Test>("test") {
     useJUnitPlatform()
 }
 
+val compileWordList = task<JavaExec>("compileWordList") {
+    group = "build"
+    description = "Compiles the word list into the binary format the runner memory-maps on startup."
+
+    val inputFile = file("src/main/resources/wordlist.txt")
+    val outputFile = file("$buildDir/wordlist/wordlist.bin")
+
+    inputs.file(inputFile)
+    outputs.file(outputFile)
+
+    classpath = java.sourceSets["main"].output
+    mainClass.set("${project.group}.WordListCompiler")
+
+    args = listOf(inputFile.path, outputFile.path)
+}
+
+java.sourceSets["main"].runtimeClasspath += files("$buildDir/wordlist").builtBy(compileWordList)
+
+task<JavaExec>("jmh") {
+    group = "benchmark"
+
+    classpath = java.sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    args = listOf("-prof", "gc")
+}
+
+task<JavaExec>("verifyResults") {
+    group = "verification"
+    description = "Replays the moves of every results file and checks the resulting boards and scores."
+
+    classpath = java.sourceSets["main"].runtimeClasspath
+    mainClass.set("${project.group}.ResultsVerifier")
+}
+
 task<JavaExec>("runAll") {
     group = "run"
 
@@ -26,6 +71,15 @@ task<JavaExec>("runAll") {
     mainClass.set("${project.group}.Runner")
 }
 
+task<JavaExec>("runAllParallel") {
+    group = "run"
+
+    classpath = java.sourceSets["main"].runtimeClasspath
+    mainClass.set("${project.group}.Runner")
+
+    args = listOf("--parallel")
+}
+
 for (i in 6..30) {
     task<JavaExec>("run${i.toString().padStart(2, '0')}") {
         group = "run"
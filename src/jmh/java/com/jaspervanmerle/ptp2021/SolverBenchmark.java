@@ -0,0 +1,45 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full greedy solve, the word list is loaded once per size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"6", "15", "30"})
+    public int size;
+
+    private WordList wordList;
+
+    @Setup
+    public void setup() {
+        wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist.txt"), size);
+    }
+
+    @Benchmark
+    public int solve() {
+        Board board = new Board(size, wordList);
+        new Solver(size, board, wordList).solve();
+        return board.getScore();
+    }
+}
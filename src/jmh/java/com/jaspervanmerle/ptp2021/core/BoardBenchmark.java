@@ -0,0 +1,143 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import com.jaspervanmerle.ptp2021.Solver;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scoring of all candidates the solver generates on a half-filled board, and applying the remaining moves of
+ * the solved board to it. Run with {@code -prof gc}, gc.alloc.rate.norm should be (close to) zero for the scoring
+ * benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+    private static final int SIZE = 15;
+
+    @Param({"CharArray", "ByteArray"})
+    public CellRepresentation representation;
+
+    private Board board;
+    private Move[] remainingMoves;
+
+    private int[] candidateXs;
+    private int[] candidateYs;
+    private Direction[] candidateDirections;
+    private String[] candidateWords;
+    private char[][] candidateCharacters;
+
+    @Setup
+    public void setup() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist.txt"), SIZE);
+
+        Board solvedBoard = new Board(SIZE, wordList);
+        new Solver(SIZE, solvedBoard, wordList).solve();
+
+        board = new Board(SIZE, wordList, representation);
+        for (Move move : solvedBoard.getAppliedMoves()) {
+            if (move.getStartY() < SIZE / 2 && board.getMoveScore(move) != Board.INVALID_MOVE) {
+                board.applyMove(move);
+            }
+        }
+
+        Board fullBoard = board.copy();
+        List<Move> remaining = new ArrayList<>();
+        for (Move move : solvedBoard.getAppliedMoves()) {
+            if (move.getStartY() >= SIZE / 2 && fullBoard.getMoveScore(move) != Board.INVALID_MOVE) {
+                fullBoard.applyMove(move);
+                remaining.add(move);
+            }
+        }
+
+        remainingMoves = remaining.toArray(new Move[0]);
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<Move> candidates = new ArrayList<>();
+
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (Direction direction : Direction.values()) {
+                    for (String word : generator.generateWords(x, y, direction)) {
+                        candidates.add(new Move(x, y, direction, word));
+                    }
+                }
+            }
+        }
+
+        int candidateCount = candidates.size();
+        candidateXs = new int[candidateCount];
+        candidateYs = new int[candidateCount];
+        candidateDirections = new Direction[candidateCount];
+        candidateWords = new String[candidateCount];
+        candidateCharacters = new char[candidateCount][];
+
+        for (int i = 0; i < candidateCount; i++) {
+            Move candidate = candidates.get(i);
+
+            candidateXs[i] = candidate.getStartX();
+            candidateYs[i] = candidate.getStartY();
+            candidateDirections[i] = candidate.getDirection();
+            candidateWords[i] = candidate.getWord();
+            candidateCharacters[i] = candidate.getWord().toCharArray();
+        }
+    }
+
+    @Benchmark
+    public int getMoveScoreString() {
+        int total = 0;
+
+        for (int i = 0; i < candidateWords.length; i++) {
+            total += board.getMoveScore(candidateXs[i], candidateYs[i], candidateDirections[i], candidateWords[i]);
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int getMoveScoreCharacters() {
+        int total = 0;
+
+        for (int i = 0; i < candidateCharacters.length; i++) {
+            char[] word = candidateCharacters[i];
+            total += board.getMoveScore(candidateXs[i], candidateYs[i], candidateDirections[i], word, 0, word.length);
+        }
+
+        return total;
+    }
+
+    /**
+     * Applies the remaining moves and rolls them back again, so every invocation starts from the same board.
+     */
+    @Benchmark
+    public int applyMove() {
+        int checkpoint = board.checkpoint();
+
+        for (Move move : remainingMoves) {
+            board.applyMove(move);
+        }
+
+        int score = board.getScore();
+        board.rollback(checkpoint);
+
+        return score;
+    }
+}
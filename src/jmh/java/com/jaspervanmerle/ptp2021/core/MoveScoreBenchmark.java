@@ -0,0 +1,142 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import com.jaspervanmerle.ptp2021.Solver;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Board#getMoveScore(int, int, Direction, String)} per kind of move on a half-filled board.
+ * Valid moves are generated by the {@link MoveGenerator}, invalid moves are random words at random start cells.
+ * A move has cross words when one of the cells it fills has a filled perpendicular neighbor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveScoreBenchmark {
+    private static final int SIZE = 15;
+    private static final int MAX_MOVES = 10_000;
+
+    @Param({"Horizontal", "Vertical"})
+    public Direction direction;
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    @Param({"true", "false"})
+    public boolean crossWords;
+
+    private Board board;
+    private Move[] moves;
+    private int moveIndex = 0;
+
+    @Setup
+    public void setup() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist.txt"), SIZE);
+
+        Board solvedBoard = new Board(SIZE, wordList);
+        new Solver(SIZE, solvedBoard, wordList).solve();
+
+        board = new Board(SIZE, wordList);
+        for (Move move : solvedBoard.getAppliedMoves()) {
+            if (move.getStartY() < SIZE / 2 && board.getMoveScore(move) != Board.INVALID_MOVE) {
+                board.applyMove(move);
+            }
+        }
+
+        List<Move> candidates = new ArrayList<>();
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (String word : generator.generateWords(x, y, direction)) {
+                    candidates.add(new Move(x, y, direction, word));
+                }
+            }
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String word : wordList) {
+            words.add(word);
+        }
+
+        Random random = new Random(0);
+        for (int i = 0; i < MAX_MOVES * 10; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            int maxStart = SIZE - word.length();
+
+            int x = direction == Direction.Horizontal ? random.nextInt(maxStart + 1) : random.nextInt(SIZE);
+            int y = direction == Direction.Horizontal ? random.nextInt(SIZE) : random.nextInt(maxStart + 1);
+
+            candidates.add(new Move(x, y, direction, word));
+        }
+
+        List<Move> selectedMoves = new ArrayList<>();
+        for (Move candidate : candidates) {
+            if (selectedMoves.size() == MAX_MOVES) {
+                break;
+            }
+
+            boolean isValid = board.getMoveScore(candidate) != Board.INVALID_MOVE;
+            if (isValid == valid && hasCrossWords(candidate) == crossWords) {
+                selectedMoves.add(candidate);
+            }
+        }
+
+        if (selectedMoves.isEmpty()) {
+            throw new IllegalStateException("No " + (valid ? "valid" : "invalid") + " moves found");
+        }
+
+        moves = selectedMoves.toArray(new Move[0]);
+    }
+
+    @Benchmark
+    public int getMoveScore() {
+        Move move = moves[moveIndex];
+        moveIndex = moveIndex + 1 == moves.length ? 0 : moveIndex + 1;
+
+        return board.getMoveScore(move.getStartX(), move.getStartY(), move.getDirection(), move.getWord());
+    }
+
+    private boolean hasCrossWords(Move move) {
+        int xDelta = move.getDirection() == Direction.Horizontal ? 1 : 0;
+        int yDelta = move.getDirection() == Direction.Horizontal ? 0 : 1;
+
+        for (int i = 0; i < move.getWord().length(); i++) {
+            int x = move.getStartX() + i * xDelta;
+            int y = move.getStartY() + i * yDelta;
+
+            if (board.getCell(x, y) != Board.EMPTY_CELL) {
+                continue;
+            }
+
+            if (isFilled(x - yDelta, y - xDelta) || isFilled(x + yDelta, y + xDelta)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isFilled(int x, int y) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE && board.getCell(x, y) != Board.EMPTY_CELL;
+    }
+}
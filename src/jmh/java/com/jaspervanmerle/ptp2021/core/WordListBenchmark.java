@@ -0,0 +1,98 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the word list and looking up words in it.
+ * The word list file is read into memory once, so loading does not measure disk access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordListBenchmark {
+    private byte[] wordListBytes;
+    private WordList wordList;
+
+    private String[] presentWords;
+    private String[] absentWords;
+    private int wordIndex = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/wordlist.txt")) {
+            wordListBytes = inputStream.readAllBytes();
+        }
+
+        wordList = WordList.fromStream(new ByteArrayInputStream(wordListBytes));
+
+        List<String> words = new ArrayList<>();
+        for (String word : wordList) {
+            words.add(word);
+        }
+
+        Collections.shuffle(words, new Random(0));
+
+        List<String> present = new ArrayList<>();
+        List<String> absent = new ArrayList<>();
+
+        for (String word : words) {
+            if (present.size() == 10_000) {
+                break;
+            }
+
+            present.add(word);
+
+            // Swapping the first and last letter keeps the letter distribution but rarely results in a word
+            String swapped = word.charAt(word.length() - 1) + word.substring(1, word.length() - 1) + word.charAt(0);
+            if (!wordList.contains(swapped)) {
+                absent.add(swapped);
+            }
+        }
+
+        presentWords = present.toArray(new String[0]);
+        absentWords = absent.toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WordList fromStream() {
+        return WordList.fromStream(new ByteArrayInputStream(wordListBytes));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsPresent() {
+        return wordList.contains(presentWords[nextWordIndex(presentWords.length)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsAbsent() {
+        return wordList.contains(absentWords[nextWordIndex(absentWords.length)]);
+    }
+
+    private int nextWordIndex(int wordCount) {
+        wordIndex = wordIndex + 1 >= wordCount ? 0 : wordIndex + 1;
+        return wordIndex;
+    }
+}
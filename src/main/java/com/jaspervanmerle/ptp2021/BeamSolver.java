@@ -0,0 +1,208 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.MoveGenerator;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Beam search variant of {@link Solver}.
+ * <p>
+ * After placing the same multiplier skeleton as the greedy solver, the start cells are visited in the same order, but
+ * instead of committing to the best word at every cell the best {@code beamWidth} boards are kept. Skipping a cell is
+ * a candidate as well. Candidates leading to a board already in the next beam are dropped. With a beam width of 1 this
+ * plays exactly the same moves as the greedy solver. Once the narrowing deadline is reached the beam is narrowed to its
+ * best board, which is then finished greedily. The gaps left on the best board are filled by the gap filling pass of
+ * the greedy solver.
+ */
+public class BeamSolver {
+    private final int size;
+    private final Board board;
+    private final WordList wordList;
+    private final int beamWidth;
+    private final List<String> words = new ArrayList<>();
+    private long narrowingDeadline = Long.MAX_VALUE;
+    private long hardDeadline = Long.MAX_VALUE;
+
+    private SolverListener listener = SolverListener.NONE;
+    private int reportedScore;
+
+    public BeamSolver(int size, Board board, WordList wordList, int beamWidth) {
+        this.size = size;
+        this.board = board;
+        this.wordList = wordList;
+        this.beamWidth = beamWidth;
+        this.reportedScore = board.getScore();
+    }
+
+    /**
+     * Narrows the beam to its best board once {@link System#nanoTime()} reaches the given deadline, that board is then
+     * finished greedily.
+     */
+    public void setNarrowingDeadline(long deadline) {
+        this.narrowingDeadline = deadline;
+    }
+
+    /**
+     * Stops searching once {@link System#nanoTime()} reaches the given deadline and returns the best board of the beam
+     * at that point. Unlike the narrowing deadline, this does not finish the board.
+     */
+    public void setDeadline(long deadline) {
+        this.hardDeadline = deadline;
+    }
+
+    /**
+     * Reports the best board of the beam after every row in which it improved. Boards in the beam are replaced rather
+     * than extended, so only the multiplier moves, which every board in the beam shares, are reported as applied moves.
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the best board found, the board given to the constructor is used as starting point of the search.
+     */
+    public Board solve() {
+        Solver multiplierSolver = new Solver(size, board, wordList);
+        multiplierSolver.setListener(listener);
+        multiplierSolver.setDeadline(hardDeadline);
+        multiplierSolver.playBestMultiplierMoves();
+        reportedScore = board.getScore();
+
+        List<BeamBoard> beam = new ArrayList<>();
+        beam.add(new BeamBoard(board));
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (System.nanoTime() >= hardDeadline) {
+                    return getBestBoard(beam);
+                }
+
+                beam = step(beam, x, y, Direction.Horizontal);
+                beam = step(beam, x, y, Direction.Vertical);
+            }
+
+            reportBestBoard(beam);
+        }
+
+        Board bestBoard = getBestBoard(beam);
+
+        Solver gapSolver = new Solver(size, bestBoard, wordList);
+        gapSolver.setListener(listener);
+        gapSolver.setDeadline(hardDeadline);
+        gapSolver.fillGaps();
+
+        return bestBoard;
+    }
+
+    private void reportBestBoard(List<BeamBoard> beam) {
+        Board bestBoard = getBestBoard(beam);
+
+        if (bestBoard.getScore() > reportedScore) {
+            reportedScore = bestBoard.getScore();
+            listener.scoreImproved(bestBoard);
+        }
+    }
+
+    private Board getBestBoard(List<BeamBoard> beam) {
+        return beam.stream().map(current -> current.board).max(Comparator.comparingInt(Board::getScore)).orElseThrow();
+    }
+
+    private List<BeamBoard> step(List<BeamBoard> beam, int x, int y, Direction direction) {
+        int width = System.nanoTime() < narrowingDeadline ? beamWidth : 1;
+
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (BeamBoard current : beam) {
+            candidates.add(new Candidate(current, null, 0, current.board.getScore()));
+
+            if (!Solver.isValidStart(current.board, x, y)) {
+                continue;
+            }
+
+            if (current.generator == null) {
+                current.generator = new MoveGenerator(current.board, wordList);
+            }
+
+            MoveGenerator generator = current.generator;
+            generator.generateWords(x, y, direction, words);
+
+            for (int i = 0; i < words.size(); i++) {
+                int score = generator.getChainScore(i);
+
+                if (score > 0) {
+                    candidates.add(new Candidate(current, words.get(i), generator.getChainLengths(i), current.board.getScore() + score));
+                }
+            }
+        }
+
+        // The sort is stable, so ties keep the order in which the greedy solver would consider them
+        candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.score).reversed());
+
+        List<BeamBoard> nextBeam = new ArrayList<>(width);
+        Set<Set<String>> nextMoves = new HashSet<>();
+
+        for (Candidate candidate : candidates) {
+            if (nextBeam.size() == width) {
+                break;
+            }
+
+            BeamBoard next = candidate.beamBoard;
+
+            if (candidate.word != null) {
+                next = new BeamBoard(candidate.beamBoard.board.copy());
+                Solver.playChain(next.board, x, y, direction, candidate.word, candidate.chainLengths);
+            }
+
+            // Boards with the same moves are equal, no matter in which order the moves were played
+            if (nextMoves.add(getMoveSet(next.board))) {
+                nextBeam.add(next);
+            }
+        }
+
+        return nextBeam;
+    }
+
+    private Set<String> getMoveSet(Board board) {
+        Set<String> moves = new HashSet<>();
+
+        for (Move move : board.getAppliedMoves()) {
+            moves.add(move.toString());
+        }
+
+        return moves;
+    }
+
+    /**
+     * A board in the beam with the move generator for it, which is created when the board first needs one.
+     */
+    private static class BeamBoard {
+        private final Board board;
+        private MoveGenerator generator;
+
+        private BeamBoard(Board board) {
+            this.board = board;
+        }
+    }
+
+    private static class Candidate {
+        private final BeamBoard beamBoard;
+        private final String word;
+        private final long chainLengths;
+        private final int score;
+
+        private Candidate(BeamBoard beamBoard, String word, long chainLengths, int score) {
+            this.beamBoard = beamBoard;
+            this.word = word;
+            this.chainLengths = chainLengths;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.MoveGenerator;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Anytime large neighborhood search which improves a solved board.
+ * <p>
+ * Every iteration rips out the words around a random multiplier tile, including the words covering the tile itself,
+ * and refills that region with a randomized greedy pass. The result is accepted under a simulated annealing schedule.
+ * Removing the words is done by rolling the board back to the first ripped move and replaying the moves after it, so
+ * an iteration never copies the board.
+ */
+public class Optimizer {
+    private static final int REGION_RADIUS = 2;
+    private static final double INITIAL_TEMPERATURE_FACTOR = 0.005;
+    private static final double FINAL_TEMPERATURE_FACTOR = 0.00001;
+
+    private final int size;
+    private final Board board;
+    private final WordList wordList;
+    private final Random random;
+    private final SolverListener listener;
+
+    private final MoveGenerator moveGenerator;
+    private final List<String> candidateWords = new ArrayList<>();
+    private final List<long[]> scoreHistory = new ArrayList<>();
+
+    // Start cells to refill, indexed by direction, y and x, reused between iterations
+    private final boolean[][][] refillStarts;
+
+    private long iterationCount = 0;
+    private long acceptedCount = 0;
+
+    public Optimizer(int size, Board board, WordList wordList, long seed, SolverListener listener) {
+        this.size = size;
+        this.board = board;
+        this.wordList = wordList;
+        this.random = new Random(seed);
+        this.listener = listener;
+
+        moveGenerator = new MoveGenerator(board, wordList);
+        refillStarts = new boolean[Direction.values().length][size][size];
+    }
+
+    /**
+     * Optimizes the board for the given amount of time and returns the best board found.
+     * The listener given to the constructor is told about every new best board, no moves are reported as applied as
+     * they may be undone by a later iteration.
+     */
+    public Board optimize(long timeLimitMs) {
+        long startTime = System.nanoTime();
+        long endTime = startTime + timeLimitMs * 1_000_000L;
+
+        Board bestBoard = board.copy();
+        scoreHistory.add(new long[]{0, bestBoard.getScore()});
+
+        double initialTemperature = Math.max(1, board.getScore() * INITIAL_TEMPERATURE_FACTOR);
+        double finalTemperature = Math.max(0.1, board.getScore() * FINAL_TEMPERATURE_FACTOR);
+
+        long currentTime;
+        while ((currentTime = System.nanoTime()) < endTime) {
+            double progress = (double) (currentTime - startTime) / (endTime - startTime);
+            double temperature = initialTemperature * Math.pow(finalTemperature / initialTemperature, progress);
+
+            if (iterate(temperature)) {
+                acceptedCount++;
+            }
+
+            iterationCount++;
+
+            if (board.getScore() > bestBoard.getScore()) {
+                bestBoard = board.copy();
+                scoreHistory.add(new long[]{(System.nanoTime() - startTime) / 1_000_000L, bestBoard.getScore()});
+                listener.scoreImproved(bestBoard);
+            }
+        }
+
+        return bestBoard;
+    }
+
+    /**
+     * Returns (elapsed milliseconds, best score) pairs, one for the start and one for every improvement.
+     */
+    public List<long[]> getScoreHistory() {
+        return scoreHistory;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * Rips out and refills the region around a random multiplier tile. Returns whether the refilled board was accepted,
+     * otherwise the board is restored to the moves it had before.
+     */
+    boolean iterate(double temperature) {
+        int tileCount = (size - 1) / 5 + 1;
+        int tileX = random.nextInt(tileCount) * 5;
+        int tileY = random.nextInt(tileCount) * 5;
+
+        int minX = Math.max(0, tileX - REGION_RADIUS);
+        int maxX = Math.min(size - 1, tileX + REGION_RADIUS);
+        int minY = Math.max(0, tileY - REGION_RADIUS);
+        int maxY = Math.min(size - 1, tileY + REGION_RADIUS);
+
+        List<Move> appliedMoves = board.getAppliedMoves();
+
+        int firstRippedMove = -1;
+        for (int i = 0; i < appliedMoves.size(); i++) {
+            if (isRipped(appliedMoves.get(i), minX, maxX, minY, maxY)) {
+                firstRippedMove = i;
+                break;
+            }
+        }
+
+        if (firstRippedMove == -1) {
+            return false;
+        }
+
+        int previousScore = board.getScore();
+        List<Move> laterMoves = appliedMoves.subList(firstRippedMove, appliedMoves.size());
+
+        board.rollback(firstRippedMove);
+
+        // Cells where a word was removed are refilled together with all cells in the rows and columns of the region
+        for (int y = 0; y < size; y++) {
+            boolean[] horizontalStarts = refillStarts[Direction.Horizontal.ordinal()][y];
+            boolean[] verticalStarts = refillStarts[Direction.Vertical.ordinal()][y];
+
+            Arrays.fill(horizontalStarts, y >= minY && y <= maxY);
+            Arrays.fill(verticalStarts, false);
+            Arrays.fill(verticalStarts, minX, maxX + 1, true);
+        }
+
+        for (Move move : laterMoves) {
+            if (!isRipped(move, minX, maxX, minY, maxY) && board.getMoveScore(move) != Board.INVALID_MOVE) {
+                board.applyMove(move);
+            } else {
+                refillStarts[move.getDirection().ordinal()][move.getStartY()][move.getStartX()] = true;
+            }
+        }
+
+        refill();
+
+        int delta = board.getScore() - previousScore;
+        if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+            return true;
+        }
+
+        board.rollback(firstRippedMove);
+
+        for (Move move : laterMoves) {
+            board.applyMove(move);
+        }
+
+        return false;
+    }
+
+    private void refill() {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (!Solver.isValidStart(board, x, y)) {
+                    continue;
+                }
+
+                for (Direction direction : Direction.values()) {
+                    if (refillStarts[direction.ordinal()][y][x]) {
+                        playRandomizedWord(x, y, direction);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays one of the best three chains at the given start cell, preferring the best one.
+     */
+    private void playRandomizedWord(int startX, int startY, Direction direction) {
+        String[] bestWords = new String[3];
+        long[] bestChainLengths = new long[3];
+        int[] bestScores = new int[3];
+
+        moveGenerator.generateWords(startX, startY, direction, candidateWords);
+
+        for (int index = 0; index < candidateWords.size(); index++) {
+            int score = moveGenerator.getChainScore(index);
+            if (score <= bestScores[bestScores.length - 1]) {
+                continue;
+            }
+
+            int i = bestScores.length - 1;
+            while (i > 0 && score > bestScores[i - 1]) {
+                bestScores[i] = bestScores[i - 1];
+                bestWords[i] = bestWords[i - 1];
+                bestChainLengths[i] = bestChainLengths[i - 1];
+                i--;
+            }
+
+            bestScores[i] = score;
+            bestWords[i] = candidateWords.get(index);
+            bestChainLengths[i] = moveGenerator.getChainLengths(index);
+        }
+
+        int choice = 0;
+        while (choice < bestWords.length - 1 && bestWords[choice + 1] != null && random.nextDouble() < 0.3) {
+            choice++;
+        }
+
+        if (bestWords[choice] != null) {
+            Solver.playChain(board, startX, startY, direction, bestWords[choice], bestChainLengths[choice]);
+        }
+    }
+
+    private boolean isRipped(Move move, int minX, int maxX, int minY, int maxY) {
+        int length = move.getWord().length();
+        int xDelta = move.getDirection() == Direction.Horizontal ? 1 : 0;
+        int yDelta = move.getDirection() == Direction.Horizontal ? 0 : 1;
+
+        for (int i = 0; i < length; i++) {
+            int x = move.getStartX() + i * xDelta;
+            int y = move.getStartY() + i * yDelta;
+
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.model.Move;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The contents of a {@code results/NN.txt} file as written by {@link Runner}: the applied moves, the board they form
+ * and its score.
+ */
+public class ResultsFile {
+    private final List<Move> moves;
+    private final String board;
+    private final int score;
+
+    private ResultsFile(List<Move> moves, String board, int score) {
+        this.moves = moves;
+        this.board = board;
+        this.score = score;
+    }
+
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the board as printed by {@link Board#toString()}.
+     */
+    public String getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Applies the moves to the given board in order, which is usually an empty board of the size of the file.
+     *
+     * @throws IllegalArgumentException when a move is not valid at the point it is applied
+     */
+    public void replay(Board board) {
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+
+            try {
+                board.applyMove(move);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " (" + move + ") is invalid", e);
+            }
+        }
+    }
+
+    public static String getFileName(int size) {
+        return (size < 10 ? "0" : "") + size + ".txt";
+    }
+
+    public static ResultsFile read(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    /**
+     * Parses the lines of a results file.
+     *
+     * @throws IllegalArgumentException when a section is missing or malformed
+     */
+    public static ResultsFile parse(List<String> lines) {
+        int movesHeader = findLine(lines, "Moves (");
+        int moveCount = parseInteger(lines.get(movesHeader).substring("Moves (".length()).replace("):", ""));
+
+        if (movesHeader + moveCount >= lines.size()) {
+            throw new IllegalArgumentException("Expected " + moveCount + " moves but the file ends before that");
+        }
+
+        List<Move> moves = new ArrayList<>(moveCount);
+        for (int i = 1; i <= moveCount; i++) {
+            moves.add(Move.parse(lines.get(movesHeader + i)));
+        }
+
+        int boardHeader = findLine(lines, "Board:");
+
+        List<String> boardLines = new ArrayList<>();
+        for (int i = boardHeader + 1; i < lines.size() && !lines.get(i).isEmpty(); i++) {
+            boardLines.add(lines.get(i));
+        }
+
+        int score = parseInteger(lines.get(findLine(lines, "Score: ")).substring("Score: ".length()));
+
+        return new ResultsFile(moves, String.join("\n", boardLines), score);
+    }
+
+    private static int findLine(List<String> lines, String prefix) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Missing line starting with '" + prefix + "'");
+    }
+
+    private static int parseInteger(String str) {
+        try {
+            return Integer.parseInt(str.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + str + "'", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.CellRepresentation;
+import com.jaspervanmerle.ptp2021.core.WordList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the files in the results directory without solving anything. The moves of every file are replayed on an
+ * empty board, after which the board and the score have to match what the file claims.
+ * <p>
+ * Every file is replayed once per {@link CellRepresentation}, which makes this a quick regression check for changes to
+ * {@link Board}: a board which scores or places any recorded move differently fails the verification.
+ */
+public class ResultsVerifier {
+    private final WordList wordList;
+
+    ResultsVerifier(WordList wordList) {
+        this.wordList = wordList;
+    }
+
+    private List<String> verify(int size) {
+        return verify(Paths.get("").toAbsolutePath().resolve("results").resolve(ResultsFile.getFileName(size)), size);
+    }
+
+    /**
+     * Returns the problems found in the given results file of the given size, which is empty when the file is correct.
+     */
+    List<String> verify(Path file, int size) {
+        List<String> problems = new ArrayList<>();
+
+        if (!Files.isRegularFile(file)) {
+            problems.add(file + " does not exist");
+            return problems;
+        }
+
+        ResultsFile results;
+        try {
+            results = ResultsFile.read(file);
+        } catch (IOException | IllegalArgumentException e) {
+            problems.add("Cannot read " + file + ": " + e.getMessage());
+            return problems;
+        }
+
+        // A board cannot hold words longer than its size, so the length-filtered view of the word list is not needed
+        for (CellRepresentation representation : CellRepresentation.values()) {
+            Board board = new Board(size, wordList, representation);
+
+            try {
+                results.replay(board);
+            } catch (IllegalArgumentException e) {
+                problems.add(representation + ": " + e.getMessage());
+                continue;
+            }
+
+            if (!board.toString().equals(results.getBoard())) {
+                problems.add(representation + ": replayed board differs from the recorded board");
+            }
+
+            if (board.getScore() != results.getScore()) {
+                problems.add(representation + ": replayed score is " + board.getScore() + " but the recorded score is " + results.getScore());
+            }
+        }
+
+        return problems;
+    }
+
+    public static void main(String[] args) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String arg : args) {
+            sizes.add(Integer.parseInt(arg));
+        }
+
+        if (sizes.isEmpty()) {
+            for (int i = 6; i <= 30; i++) {
+                sizes.add(i);
+            }
+        }
+
+        ResultsVerifier verifier = new ResultsVerifier(Runner.loadWordList());
+
+        long startTime = System.nanoTime();
+
+        // Files are independent, the word list is only read while replaying
+        List<List<String>> problems = sizes.parallelStream()
+                .map(verifier::verify)
+                .collect(Collectors.toList());
+
+        double executionTimeMs = (System.nanoTime() - startTime) / 1e6;
+
+        int failedCount = 0;
+        for (int i = 0; i < sizes.size(); i++) {
+            int size = sizes.get(i);
+
+            if (problems.get(i).isEmpty()) {
+                System.out.println("Size " + size + ": OK");
+                continue;
+            }
+
+            failedCount++;
+            for (String problem : problems.get(i)) {
+                System.out.println("Size " + size + ": " + problem);
+            }
+        }
+
+        System.out.printf("Verified %d results files in %.2fms, %d failed%n", sizes.size(), executionTimeMs, failedCount);
+
+        if (failedCount > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,23 +1,58 @@
 package com.jaspervanmerle.ptp2021;
 
 import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.Metrics;
 import com.jaspervanmerle.ptp2021.core.WordList;
 import com.jaspervanmerle.ptp2021.model.Move;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class Runner {
     private final DecimalFormat integerFormat;
     private final DecimalFormat decimalFormat;
 
+    private final Object outputLock = new Object();
+    private final Object resultsLock = new Object();
+
+    // Best boards found by running solves which have not been saved yet, by size
+    private final Map<Integer, Checkpoint> pendingCheckpoints = new ConcurrentHashMap<>();
+
+    private WordList wordList;
+    private long wordListLoadTimeNs = 0;
+    private int beamWidth = 1;
+    private boolean parallelScoring = false;
+    private long timeLimitMs = 0;
+    private long optimizeTimeMs = 0;
+    private boolean metricsEnabled = false;
+    private boolean jmxEnabled = false;
+    private long checkpointIntervalMs = 60_000;
+    private long budgetMs = 0;
+    private TimeBudget totalBudget;
+    private boolean resume = false;
+
     private Runner() {
         integerFormat = new DecimalFormat();
         integerFormat.setMinimumFractionDigits(0);
@@ -33,50 +68,332 @@ public class Runner {
     }
 
     private void run(int size) {
+        WordList wordList = getWordList().withMaxLength(size);
+
         double startTime = System.nanoTime();
 
-        System.out.println("Solving for size " + size);
+        synchronized (outputLock) {
+            System.out.println("Solving for size " + size);
+        }
 
-        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist.txt"), size);
-        Board board = new Board(size, wordList);
+        long deadline = getDeadline(size);
+        Metrics metrics = metricsEnabled ? createMetrics(size) : null;
+
+        Board board = resume ? loadBestBoard(size, wordList) : new Board(size, wordList);
+        board.setMetrics(metrics);
+
+        if (beamWidth > 1) {
+            long beamStartTime = System.nanoTime();
+
+            BeamSolver solver = new BeamSolver(size, board, wordList, beamWidth);
+            solver.setListener(createCheckpointListener(size, startTime));
+            solver.setDeadline(deadline);
+
+            if (timeLimitMs > 0) {
+                solver.setNarrowingDeadline(System.nanoTime() + timeLimitMs * 1_000_000L);
+            }
+
+            board = solver.solve();
+
+            if (metrics != null) {
+                metrics.addPhaseTime("beamSearch", System.nanoTime() - beamStartTime);
+            }
+        } else {
+            Solver solver = new Solver(size, board, wordList);
+            solver.setMetrics(metrics);
+            solver.setParallel(parallelScoring);
+            solver.setListener(createCheckpointListener(size, startTime));
+            solver.setDeadline(deadline);
+            solver.solve();
+
+            synchronized (outputLock) {
+                System.out.println("Size " + size + " evaluated " + formatInteger(solver.getEvaluatedCandidateCount()) + " candidate chains");
+
+                if (solver.isDeadlineReached()) {
+                    System.out.println("Size " + size + " ran out of time before the board was finished");
+                }
+            }
+        }
+
+        long availableOptimizeTimeMs = Math.min(optimizeTimeMs, Math.max(0, (deadline - System.nanoTime()) / 1_000_000L));
+        if (availableOptimizeTimeMs > 0) {
+            Optimizer optimizer = new Optimizer(size, board, wordList, size, createCheckpointListener(size, startTime));
 
-        Solver solver = new Solver(size, board, wordList);
-        solver.solve();
+            long optimizeStartTime = System.nanoTime();
+            board = optimizer.optimize(availableOptimizeTimeMs);
+
+            if (metrics != null) {
+                metrics.addPhaseTime("optimize", System.nanoTime() - optimizeStartTime);
+            }
+
+            List<String> historyLines = new ArrayList<>();
+            historyLines.add("Score over time for size " + size + " (" + formatInteger(optimizer.getIterationCount()) + " iterations, " + formatInteger(optimizer.getAcceptedCount()) + " accepted):");
+            for (long[] entry : optimizer.getScoreHistory()) {
+                historyLines.add(formatInteger(entry[0]) + "ms: " + formatInteger(entry[1]));
+            }
+
+            synchronized (outputLock) {
+                for (String line : historyLines) {
+                    System.out.println(line);
+                }
+            }
+        }
 
         double endTime = System.nanoTime();
         double executionTimeMs = (endTime - startTime) / 1e6;
 
+        List<String> outputLines = getOutputLines(size, board, executionTimeMs);
+
+        synchronized (outputLock) {
+            for (String line : outputLines) {
+                System.out.println(line);
+            }
+        }
+
+        // The final board is at least as good as any board reported while solving
+        pendingCheckpoints.remove(size);
+
+        try {
+            saveBestScore(size, board, outputLines);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        if (metrics != null) {
+            try {
+                saveMetrics(size, metrics);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Reconstructs the board of the current best result of the given size, so solving continues from the board which
+     * has to be improved upon. Falls back to an empty board when there is no result yet or when it cannot be replayed.
+     */
+    private Board loadBestBoard(int size, WordList wordList) {
+        Path resultsFile = Paths.get("").toAbsolutePath().resolve("results").resolve(ResultsFile.getFileName(size));
+        if (!Files.isRegularFile(resultsFile)) {
+            return new Board(size, wordList);
+        }
+
+        Board board = new Board(size, wordList);
+
+        try {
+            ResultsFile.read(resultsFile).replay(board);
+        } catch (IOException | IllegalArgumentException e) {
+            synchronized (outputLock) {
+                System.out.println("Cannot resume size " + size + " from " + resultsFile + ": " + e.getMessage());
+            }
+
+            return new Board(size, wordList);
+        }
+
+        synchronized (outputLock) {
+            System.out.println("Resuming size " + size + " from " + formatInteger(board.getAppliedMoves().size()) + " moves scoring " + formatInteger(board.getScore()));
+        }
+
+        return board;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which solving the given size has to stop, which is the earliest of the
+     * end of its own budget and the end of its share of the total budget.
+     */
+    private long getDeadline(int size) {
+        long deadline = Long.MAX_VALUE;
+
+        if (budgetMs > 0) {
+            deadline = System.nanoTime() + budgetMs * 1_000_000L;
+        }
+
+        if (totalBudget != null) {
+            deadline = Math.min(deadline, totalBudget.startSize(size));
+        }
+
+        return deadline;
+    }
+
+    private SolverListener createCheckpointListener(int size, double startTime) {
+        return new SolverListener() {
+            @Override
+            public void scoreImproved(Board board) {
+                pendingCheckpoints.put(size, new Checkpoint(board.copy(), (System.nanoTime() - startTime) / 1e6));
+            }
+        };
+    }
+
+    /**
+     * Saves the best boards which running solves found since the last checkpoint, so a killed run loses at most one
+     * checkpoint interval of progress. Called periodically and from a shutdown hook.
+     */
+    private void saveCheckpoints() {
+        for (int size : pendingCheckpoints.keySet()) {
+            Checkpoint checkpoint = pendingCheckpoints.remove(size);
+            if (checkpoint == null) {
+                continue;
+            }
+
+            synchronized (outputLock) {
+                System.out.println("Checkpoint for size " + size + ": " + formatInteger(checkpoint.board.getScore()) + " after " + formatDecimal(checkpoint.timeMs) + "ms");
+            }
+
+            try {
+                saveBestScore(size, checkpoint.board, getOutputLines(size, checkpoint.board, checkpoint.timeMs));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private ScheduledExecutorService startCheckpoints() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoints");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(this::saveCheckpoints, checkpointIntervalMs, checkpointIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveCheckpoints, "checkpoints-shutdown"));
+
+        return scheduler;
+    }
+
+    /**
+     * Creates the metrics of a single size, which start with the time it took to load the shared word list.
+     * With JMX enabled they are registered as an MXBean, so they can be followed in JConsole while solving.
+     */
+    private Metrics createMetrics(int size) {
+        Metrics metrics = new Metrics(size);
+        metrics.addPhaseTime("loadWordList", wordListLoadTimeNs);
+
+        if (jmxEnabled) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName("com.jaspervanmerle.ptp2021:type=Metrics,size=" + size);
+
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+
+                server.registerMBean(metrics, name);
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return metrics;
+    }
+
+    private void saveMetrics(int size, Metrics metrics) throws IOException {
+        Path metricsDirectory = Paths.get("").toAbsolutePath().resolve("metrics");
+        Files.createDirectories(metricsDirectory);
+
+        String metricsFileName = (size < 10 ? "0" : "") + size + ".json";
+        Files.writeString(metricsDirectory.resolve(metricsFileName), metrics.toJson());
+
+        synchronized (outputLock) {
+            System.out.println("Metrics for size " + size + " written to metrics/" + metricsFileName);
+        }
+    }
+
+    private List<String> getOutputLines(int size, Board board, double executionTimeMs) {
         List<Move> appliedMoves = board.getAppliedMoves();
 
         List<String> outputLines = new ArrayList<>();
         outputLines.add("");
-        outputLines.add("Moves (" + integerFormat.format(appliedMoves.size()) + "):");
+        outputLines.add("Moves (" + formatInteger(appliedMoves.size()) + "):");
         outputLines.add(appliedMoves.stream().map(Move::toString).collect(Collectors.joining("\n")));
         outputLines.add("");
         outputLines.add("Board:");
         outputLines.add(board.toString());
         outputLines.add("");
-        outputLines.add("Score: " + integerFormat.format(board.getScore()));
+        outputLines.add("Score: " + formatInteger(board.getScore()));
         outputLines.add("");
-        outputLines.add("Solving for size " + size + " took " + decimalFormat.format(executionTimeMs) + "ms");
+        outputLines.add("Solving for size " + size + " took " + formatDecimal(executionTimeMs) + "ms");
 
-        for (String line : outputLines) {
-            System.out.println(line);
-        }
+        return outputLines;
+    }
+
+    private void runParallel(List<Integer> sizes, int threads) {
+        getWordList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Larger sizes take the longest, starting them first keeps all threads busy until the end
+        List<Future<?>> futures = new ArrayList<>();
+        sizes.stream()
+                .sorted(Comparator.reverseOrder())
+                .forEach(size -> futures.add(executor.submit(() -> run(size))));
 
         try {
-            saveBestScore(size, board, outputLines);
-        } catch (IOException e) {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
             e.printStackTrace();
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    /**
+     * Loads the word list once, every size solves on a length-filtered view of it.
+     * The binary word list created by the compileWordList task is preferred over the text word list when available.
+     */
+    private synchronized WordList getWordList() {
+        if (wordList == null) {
+            long startTime = System.nanoTime();
+
+            wordList = loadWordList();
+
+            wordListLoadTimeNs = System.nanoTime() - startTime;
+            double executionTimeMs = wordListLoadTimeNs / 1e6;
+
+            synchronized (outputLock) {
+                System.out.println("Loading " + formatInteger(wordList.getSize()) + " words took " + formatDecimal(executionTimeMs) + "ms");
+            }
+        }
+
+        return wordList;
+    }
+
+    static WordList loadWordList() {
+        URL binaryWordList = Runner.class.getResource("/wordlist.bin");
+
+        if (binaryWordList != null && binaryWordList.getProtocol().equals("file")) {
+            try {
+                return WordList.fromBinaryFile(Paths.get(binaryWordList.toURI()));
+            } catch (IOException | URISyntaxException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return WordList.fromStream(Runner.class.getResourceAsStream("/wordlist.txt"));
+    }
+
+    private synchronized String formatInteger(long value) {
+        return integerFormat.format(value);
+    }
+
+    private synchronized String formatDecimal(double value) {
+        return decimalFormat.format(value);
+    }
+
     private void saveBestScore(int size, Board board, List<String> outputLines) throws IOException {
+        // Sizes may be solved concurrently, but they all share README.md
+        synchronized (resultsLock) {
+            saveBestScoreUnsynchronized(size, board, outputLines);
+        }
+    }
+
+    private void saveBestScoreUnsynchronized(int size, Board board, List<String> outputLines) throws IOException {
         Path projectDirectory = Paths.get("").toAbsolutePath();
 
         int bestScore = 0;
 
-        String resultsFileName = (size < 10 ? "0" : "") + size + ".txt";
+        String resultsFileName = ResultsFile.getFileName(size);
         Path resultsFile = projectDirectory.resolve("results").resolve(resultsFileName);
         if (Files.isRegularFile(resultsFile)) {
             for (String line : Files.readAllLines(resultsFile)) {
@@ -96,7 +413,9 @@ public class Runner {
             return;
         }
 
-        System.out.println("Found a new best for size " + size);
+        synchronized (outputLock) {
+            System.out.println("Found a new best for size " + size);
+        }
 
         Files.writeString(resultsFile, String.join("\n", outputLines).trim() + "\n");
 
@@ -111,7 +430,7 @@ public class Runner {
 
             List<String> columns = new ArrayList<>();
             columns.add(Integer.toString(size));
-            columns.add("[" + integerFormat.format(newScore) + "](./results/" + resultsFileName + ")");
+            columns.add("[" + formatInteger(newScore) + "](./results/" + resultsFileName + ")");
 
             readmeLines.add("| " + String.join(" | ", columns) + " |");
         }
@@ -122,12 +441,73 @@ public class Runner {
     public static void main(String[] args) {
         Runner runner = new Runner();
 
-        if (args.length == 1) {
-            runner.run(Integer.parseInt(args[0]));
-        } else {
+        List<Integer> sizes = new ArrayList<>();
+        int threads = 1;
+        long totalBudgetMs = 0;
+
+        for (String arg : args) {
+            if (arg.equals("--parallel")) {
+                threads = Runtime.getRuntime().availableProcessors();
+            } else if (arg.equals("--parallel-scoring")) {
+                runner.parallelScoring = true;
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--beam-width=")) {
+                runner.beamWidth = Integer.parseInt(arg.substring("--beam-width=".length()));
+            } else if (arg.startsWith("--time-limit=")) {
+                runner.timeLimitMs = Long.parseLong(arg.substring("--time-limit=".length())) * 1000L;
+            } else if (arg.startsWith("--optimize=")) {
+                runner.optimizeTimeMs = Long.parseLong(arg.substring("--optimize=".length())) * 1000L;
+            } else if (arg.startsWith("--checkpoint-interval=")) {
+                runner.checkpointIntervalMs = Long.parseLong(arg.substring("--checkpoint-interval=".length())) * 1000L;
+            } else if (arg.startsWith("--budget=")) {
+                runner.budgetMs = Long.parseLong(arg.substring("--budget=".length())) * 1000L;
+            } else if (arg.startsWith("--total-budget=")) {
+                totalBudgetMs = Long.parseLong(arg.substring("--total-budget=".length())) * 1000L;
+            } else if (arg.equals("--resume")) {
+                runner.resume = true;
+            } else if (arg.equals("--metrics")) {
+                runner.metricsEnabled = true;
+            } else if (arg.equals("--jmx")) {
+                runner.metricsEnabled = true;
+                runner.jmxEnabled = true;
+            } else {
+                sizes.add(Integer.parseInt(arg));
+            }
+        }
+
+        if (sizes.isEmpty()) {
             for (int i = 6; i <= 30; i++) {
-                runner.run(i);
+                sizes.add(i);
             }
         }
+
+        boolean parallel = threads > 1 && sizes.size() > 1;
+
+        if (totalBudgetMs > 0) {
+            runner.totalBudget = new TimeBudget(totalBudgetMs, sizes, parallel ? threads : 1);
+        }
+
+        ScheduledExecutorService checkpoints = runner.startCheckpoints();
+
+        if (parallel) {
+            runner.runParallel(sizes, threads);
+        } else {
+            for (int size : sizes) {
+                runner.run(size);
+            }
+        }
+
+        checkpoints.shutdownNow();
+    }
+
+    private static class Checkpoint {
+        private final Board board;
+        private final double timeMs;
+
+        private Checkpoint(Board board, double timeMs) {
+            this.board = board;
+            this.timeMs = timeMs;
+        }
     }
 }
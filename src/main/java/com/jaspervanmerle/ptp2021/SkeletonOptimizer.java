@@ -0,0 +1,460 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.MoveGenerator;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places the words covering the multiplier tiles, which is where most of the score of a board comes from.
+ * <p>
+ * Multipliers compound, so a word covering n multiplier tiles scores 3^n times its letter sum. The skeleton therefore
+ * consists of a long word on every fifth row, starting on one of the multiplier columns. Each row is connected to the
+ * previous one by a 5-letter vertical connector which forms a 6-letter word once the row is placed. Connectors on a
+ * multiplier column end on a multiplier tile, so after the connector chosen for the best score, more connectors are
+ * added on multiplier columns where they increase the score. Once all rows are placed, vertical words crossing the
+ * rows are added on the multiplier columns. The rows are only searched horizontally, on an empty board the column
+ * skeletons are the transposed row skeletons.
+ * <p>
+ * Rows are placed one at a time with a beam search, which keeps the best {@code beamWidth} boards after every row.
+ * Line words are taken in order of their score on an empty row, which is computed once from the word ids indexed by
+ * length and is the same for every multiplier column the word starts on.
+ */
+public class SkeletonOptimizer {
+    // Line words tried for every start column of every board in the beam, most boards only need the first few before
+    // one can be connected
+    private static final int CANDIDATES_PER_START = 4;
+
+    private final int size;
+    private final Board board;
+    private final WordList wordList;
+    private final int beamWidth;
+
+    private final int[] lineWordIds;
+    private final Map<Integer, long[]> connectingWords = new HashMap<>();
+
+    private long deadline = Long.MAX_VALUE;
+
+    public SkeletonOptimizer(int size, Board board, WordList wordList, int beamWidth) {
+        this.size = size;
+        this.board = board;
+        this.wordList = wordList;
+        this.beamWidth = beamWidth;
+
+        lineWordIds = getLineWordIds();
+    }
+
+    /**
+     * Stops adding lines once {@link System#nanoTime()} reaches the given deadline.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a copy of the board given to the constructor with the best skeleton found applied to it.
+     */
+    public Board optimize() {
+        List<Board> beam = new ArrayList<>();
+        beam.add(board.copy());
+
+        for (int line = 0; line < size; line += 5) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+
+            beam = step(beam, line);
+        }
+
+        Board bestBoard = null;
+
+        for (Board current : beam) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+
+            addCrossingColumns(current);
+
+            if (bestBoard == null || current.getScore() > bestBoard.getScore()) {
+                bestBoard = current;
+            }
+        }
+
+        return bestBoard != null ? bestBoard : beam.get(0);
+    }
+
+    private List<Board> step(List<Board> beam, int line) {
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (Board current : beam) {
+            List<Candidate> boardCandidates = getCandidates(current, line);
+
+            if (boardCandidates.isEmpty()) {
+                // Without a connected word on this line the board is kept as is, the remaining lines will not connect
+                candidates.add(new Candidate(current, null, null, current.getScore()));
+            } else {
+                candidates.addAll(boardCandidates);
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.score).reversed());
+
+        List<Board> nextBeam = new ArrayList<>(beamWidth);
+        for (Candidate candidate : candidates) {
+            if (nextBeam.size() == beamWidth) {
+                break;
+            }
+
+            if (candidate.lineMove == null) {
+                nextBeam.add(candidate.board);
+                continue;
+            }
+
+            Board next = candidate.board.copy();
+            if (candidate.connectorMove != null) {
+                next.applyMove(candidate.connectorMove);
+                addExtraConnectors(next, candidate.connectorMove, candidate.lineMove);
+            }
+
+            next.applyMove(candidate.lineMove);
+            nextBeam.add(next);
+        }
+
+        return nextBeam;
+    }
+
+    /**
+     * Returns the first line words which can be played on the given line of the given board from every multiplier
+     * column, each with the connector giving the highest score.
+     */
+    private List<Candidate> getCandidates(Board current, int line) {
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (int start = 0; start < size; start += 5) {
+            addCandidates(current, line, start, candidates);
+        }
+
+        return candidates;
+    }
+
+    private void addCandidates(Board current, int line, int start, List<Candidate> candidates) {
+        // Words which end before the first filled cell of the previous line cannot be connected to it
+        int firstConnectable = start;
+        while (line > 0 && firstConnectable < size && current.getCell(firstConnectable, line - 5) == Board.EMPTY_CELL) {
+            firstConnectable++;
+        }
+
+        if (firstConnectable == size) {
+            return;
+        }
+
+        int startCount = 0;
+
+        for (int wordId : lineWordIds) {
+            if (startCount == CANDIDATES_PER_START) {
+                break;
+            }
+
+            String word = wordList.getWord(wordId);
+            if (start + word.length() > size || start + word.length() <= firstConnectable) {
+                continue;
+            }
+
+            Move lineMove = new Move(start, line, Direction.Horizontal, word);
+
+            if (line == 0) {
+                int score = current.getMoveScore(lineMove);
+                if (score != Board.INVALID_MOVE) {
+                    candidates.add(new Candidate(current, null, lineMove, current.getScore() + score));
+                    startCount++;
+                }
+
+                continue;
+            }
+
+            int lineScore = current.getMoveScore(lineMove);
+            if (lineScore == Board.INVALID_MOVE) {
+                continue;
+            }
+
+            Connection bestConnection = null;
+
+            for (int x = start; x < start + word.length(); x++) {
+                Connection connection = getBestConnection(current, x, line, lineMove, lineScore);
+
+                if (connection != null && (bestConnection == null || connection.score > bestConnection.score)) {
+                    bestConnection = connection;
+                }
+            }
+
+            if (bestConnection != null) {
+                candidates.add(new Candidate(current, bestConnection.move, lineMove, current.getScore() + bestConnection.score));
+                startCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the connector from the previous line to the given column of the line which, together with the line word,
+     * gives the highest score, or null if there is none.
+     * <p>
+     * Connectors do not change the score of the line word itself, so the score of a connector and the line together is
+     * the score of the connector, the given score of the line on its own and the score of the 6-letter word they form.
+     * This is exact for every valid connection, so only the best one has to be played to check it is valid.
+     */
+    private Connection getBestConnection(Board current, int x, int line, Move lineMove, int lineScore) {
+        int previousLine = line - 5;
+
+        char startLetter = current.getCell(x, previousLine);
+        if (startLetter == Board.EMPTY_CELL) {
+            return null;
+        }
+
+        char endLetter = lineMove.getWord().charAt(x - lineMove.getStartX());
+        int endMultiplier = x % 5 == 0 ? 3 : 1;
+
+        long[] connectingWords = getConnectingWords(startLetter, endLetter);
+        int[] estimatedScores = new int[connectingWords.length];
+
+        Move bestConnectorMove = null;
+        int bestScore = 0;
+
+        for (int i = 0; i < connectingWords.length; i++) {
+            Move connectorMove = new Move(x, previousLine, Direction.Vertical, wordList.getWord((int) (connectingWords[i] >>> 32)));
+
+            int connectorScore = current.getMoveScore(connectorMove);
+            if (connectorScore == Board.INVALID_MOVE) {
+                continue;
+            }
+
+            int fullWordScore = wordList.getWordLetterSum((int) connectingWords[i]) * endMultiplier;
+            estimatedScores[i] = connectorScore + lineScore + fullWordScore;
+
+            if (estimatedScores[i] > bestScore) {
+                bestConnectorMove = connectorMove;
+                bestScore = estimatedScores[i];
+            }
+        }
+
+        if (bestConnectorMove == null) {
+            return null;
+        }
+
+        if (getConnectedScore(current, bestConnectorMove, lineMove) == bestScore) {
+            return new Connection(bestConnectorMove, bestScore);
+        }
+
+        // The 6-letter word of the best connector was played before, so fall back to checking every connector
+        bestConnectorMove = null;
+        bestScore = 0;
+
+        for (int i = 0; i < connectingWords.length; i++) {
+            if (estimatedScores[i] <= bestScore) {
+                continue;
+            }
+
+            Move connectorMove = new Move(x, previousLine, Direction.Vertical, wordList.getWord((int) (connectingWords[i] >>> 32)));
+
+            int score = getConnectedScore(current, connectorMove, lineMove);
+            if (score > bestScore) {
+                bestConnectorMove = connectorMove;
+                bestScore = score;
+            }
+        }
+
+        return bestConnectorMove != null ? new Connection(bestConnectorMove, bestScore) : null;
+    }
+
+    /**
+     * Adds connectors ending on multiplier tiles of the line, as long as they increase the score of the connectors and
+     * the line together. Connectors are never placed next to each other.
+     */
+    private void addExtraConnectors(Board current, Move connectorMove, Move lineMove) {
+        int line = lineMove.getStartY();
+
+        List<Integer> connectorColumns = new ArrayList<>();
+        connectorColumns.add(connectorMove.getStartX());
+
+        for (int x = lineMove.getStartX(); x < lineMove.getStartX() + lineMove.getWord().length(); x += 5) {
+            if (isNextToConnector(x, connectorColumns)) {
+                continue;
+            }
+
+            int lineScore = current.getMoveScore(lineMove);
+
+            Connection connection = getBestConnection(current, x, line, lineMove, lineScore);
+            if (connection != null && connection.score > lineScore) {
+                current.applyMove(connection.move);
+                connectorColumns.add(x);
+            }
+        }
+    }
+
+    private boolean isNextToConnector(int x, List<Integer> connectorColumns) {
+        for (int connectorColumn : connectorColumns) {
+            if (Math.abs(x - connectorColumn) <= 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Plays the highest scoring chain of a vertical word on every multiplier column which starts on a filled multiplier
+     * tile, crosses the next row and covers at least three multiplier tiles, if it scores anything. Shorter words are
+     * left to the gap filling pass, which places them better than the skeleton can.
+     */
+    private void addCrossingColumns(Board current) {
+        MoveGenerator generator = new MoveGenerator(current, wordList);
+        List<String> words = new ArrayList<>();
+
+        for (int x = 0; x < size; x += 5) {
+            int bestY = -1;
+            String bestWord = null;
+            long bestChainLengths = 0;
+            int bestScore = 0;
+
+            for (int y = 0; y + 10 < size; y += 5) {
+                if (current.getCell(x, y) == Board.EMPTY_CELL || current.getCell(x, y + 5) == Board.EMPTY_CELL) {
+                    continue;
+                }
+
+                generator.generateWords(x, y, Direction.Vertical, words);
+
+                for (int i = 0; i < words.size(); i++) {
+                    if (words.get(i).length() > 10 && generator.getChainScore(i) > bestScore) {
+                        bestY = y;
+                        bestWord = words.get(i);
+                        bestChainLengths = generator.getChainLengths(i);
+                        bestScore = generator.getChainScore(i);
+                    }
+                }
+            }
+
+            if (bestWord != null) {
+                Solver.playChain(current, x, bestY, Direction.Vertical, bestWord, bestChainLengths);
+            }
+        }
+    }
+
+    /**
+     * Returns the score of playing the given connector followed by the given line move, or 0 if either is invalid.
+     */
+    private int getConnectedScore(Board current, Move connectorMove, Move lineMove) {
+        int connectorScore = current.getMoveScore(connectorMove);
+        if (connectorScore == Board.INVALID_MOVE) {
+            return 0;
+        }
+
+        int checkpoint = current.checkpoint();
+        current.applyMove(connectorMove);
+
+        int lineScore = current.getMoveScore(lineMove);
+
+        current.rollback(checkpoint);
+
+        return lineScore == Board.INVALID_MOVE ? 0 : connectorScore + lineScore;
+    }
+
+    /**
+     * Returns the 5-letter words starting with the given start letter which form a 6-letter word when followed by the
+     * given end letter. Each is packed as the id of the 5-letter word above the id of the 6-letter word, sorted by the
+     * id of the 5-letter word so ties are broken the same way as when scanning all words.
+     */
+    private long[] getConnectingWords(char startLetter, char endLetter) {
+        return connectingWords.computeIfAbsent((int) startLetter << 16 | endLetter, key -> {
+            int[] fullWordIds = wordList.getWordIdsWithEnds(6, startLetter, endLetter);
+            long[] words = new long[fullWordIds.length];
+            int count = 0;
+
+            for (int fullWordId : fullWordIds) {
+                int connectingWordId = wordList.getWordId(wordList.getWord(fullWordId).substring(0, 5));
+
+                if (connectingWordId != WordList.NO_WORD) {
+                    words[count++] = (long) connectingWordId << 32 | fullWordId;
+                }
+            }
+
+            long[] result = Arrays.copyOf(words, count);
+            Arrays.sort(result);
+            return result;
+        });
+    }
+
+    /**
+     * Returns the ids of all words which fit on a line, ordered by descending score when played at the start of an
+     * empty line. That score is the letter sum tripled for every multiplier tile the word covers.
+     */
+    private int[] getLineWordIds() {
+        List<long[]> keyChunks = new ArrayList<>();
+        int count = 0;
+
+        for (int length = 2; length <= size; length++) {
+            int[] ids = wordList.getWordIdsWithLength(length);
+            long[] keys = new long[ids.length];
+
+            int multiplier = 1;
+            for (int i = 0; i < (length - 1) / 5 + 1; i++) {
+                multiplier *= 3;
+            }
+
+            // Scores are packed above the inverted id, so sorting descending orders by score and then by id
+            for (int i = 0; i < ids.length; i++) {
+                long score = (long) wordList.getWordLetterSum(ids[i]) * multiplier;
+                keys[i] = score << 32 | (Integer.MAX_VALUE - ids[i]);
+            }
+
+            keyChunks.add(keys);
+            count += keys.length;
+        }
+
+        long[] keys = new long[count];
+        int position = 0;
+        for (long[] chunk : keyChunks) {
+            System.arraycopy(chunk, 0, keys, position, chunk.length);
+            position += chunk.length;
+        }
+
+        Arrays.sort(keys);
+
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) keys[count - 1 - i];
+        }
+
+        return ids;
+    }
+
+    private static class Connection {
+        private final Move move;
+        private final int score;
+
+        private Connection(Move move, int score) {
+            this.move = move;
+            this.score = score;
+        }
+    }
+
+    private static class Candidate {
+        private final Board board;
+        private final Move connectorMove;
+        private final Move lineMove;
+        private final int score;
+
+        private Candidate(Board board, Move connectorMove, Move lineMove, int score) {
+            this.board = board;
+            this.connectorMove = connectorMove;
+            this.lineMove = lineMove;
+            this.score = score;
+        }
+    }
+}
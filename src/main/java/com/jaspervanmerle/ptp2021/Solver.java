@@ -1,36 +1,152 @@
 package com.jaspervanmerle.ptp2021;
 
 import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.Metrics;
+import com.jaspervanmerle.ptp2021.core.MoveGenerator;
 import com.jaspervanmerle.ptp2021.core.WordList;
 import com.jaspervanmerle.ptp2021.model.Direction;
 import com.jaspervanmerle.ptp2021.model.Move;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class Solver {
+    private static final int SKELETON_BEAM_WIDTH = 4;
+
+    // Below this number of stale starts the overhead of forking outweighs the gain of recomputing them in parallel
+    private static final int PARALLEL_THRESHOLD = 64;
+
     private final int size;
     private final Board board;
     private final WordList wordList;
+    private final StartSearch search;
+
+    // Best chain per start of the gap filling pass, see getGapIndex, and last stale start per line or -1
+    private final String[] gapWords;
+    private final long[] gapChainLengths;
+    private final int[] gapScores;
+    private final int[] staleGapStarts;
+    private final int[] newCells;
+    private final int[] gapStartBuffer;
+
+    // Searches of the worker threads, which are kept so their candidate counts can be summed
+    private final List<StartSearch> searches = new ArrayList<>();
+    private final ThreadLocal<StartSearch> workerSearches;
+    private boolean parallel = false;
+
+    private Metrics metrics;
+    private SolverListener listener = SolverListener.NONE;
+    private int reportedScore;
+
+    private long deadline = Long.MAX_VALUE;
+    private boolean deadlineReached = false;
 
     public Solver(int size, Board board, WordList wordList) {
         this.size = size;
         this.board = board;
         this.wordList = wordList;
+        this.search = createSearch();
+        this.workerSearches = ThreadLocal.withInitial(this::createSearch);
+        this.reportedScore = board.getScore();
+
+        int directionCount = Direction.values().length;
+        this.gapWords = new String[directionCount * size * size];
+        this.gapChainLengths = new long[directionCount * size * size];
+        this.gapScores = new int[directionCount * size * size];
+        this.staleGapStarts = new int[directionCount * size];
+        this.newCells = new int[size];
+        this.gapStartBuffer = new int[directionCount * size * size];
+    }
+
+    /**
+     * Records the candidate counts, the generator counters and the time spent in each phase into the given metrics, null
+     * disables recording. Move outcomes are recorded by the board, see {@link Board#setMetrics(Metrics)}.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+
+        synchronized (searches) {
+            for (StartSearch search : searches) {
+                search.moveGenerator.setMetrics(metrics);
+            }
+        }
+    }
+
+    /**
+     * Enables recomputing the stale starts of the gap filling pass on the common fork/join pool, each worker with its
+     * own move generator. The best start is chosen after all starts are recomputed, so the moves are the same as when
+     * recomputing sequentially.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Reports every move played by this solver to the given listener. As the greedy solver never removes a move, every
+     * move which increases the score is an improvement as well.
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops solving once {@link System#nanoTime()} reaches the given deadline, leaving the moves played so far on the
+     * board. The deadline is checked before every multiplier line of the skeleton and every start cell, so a single
+     * greedy step is never interrupted.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns whether solving stopped early because the deadline was reached.
+     */
+    public boolean isDeadlineReached() {
+        return deadlineReached;
+    }
+
+    /**
+     * Returns the number of candidate chains the greedy steps chose from.
+     */
+    public long getEvaluatedCandidateCount() {
+        long count = 0;
+
+        synchronized (searches) {
+            for (StartSearch search : searches) {
+                count += search.evaluatedCount;
+            }
+        }
+
+        return count;
     }
 
     public void solve() {
+        long phaseStartTime = System.nanoTime();
         playBestMultiplierMoves();
+        phaseStartTime = recordPhase("playBestMultiplierMoves", phaseStartTime);
+
+        scanRows();
+        phaseStartTime = recordPhase("rowScan", phaseStartTime);
+
+        fillGaps();
+        recordPhase("fillGaps", phaseStartTime);
 
+        if (metrics != null) {
+            metrics.addCandidates(getEvaluatedCandidateCount());
+        }
+    }
+
+    private void scanRows() {
         for (int y = 0; y < size; y++) {
             for (int x = 0; x < size; x++) {
-                if (!isValidStart(x, y)) {
+                if (checkDeadline()) {
+                    return;
+                }
+
+                if (!isValidStart(board, x, y)) {
                     continue;
                 }
 
@@ -40,128 +156,292 @@ public class Solver {
         }
     }
 
-    private void playBestMultiplierMoves() {
-        Queue<String> multiplierWords = new ArrayDeque<>(getBestMultiplierWords());
+    /**
+     * Repeatedly plays the best chain over all start cells until none scores, recomputing only the starts near changed
+     * cells between moves.
+     */
+    void fillGaps() {
+        Arrays.fill(staleGapStarts, size - 1);
+
+        while (!checkDeadline()) {
+            updateStaleGapStarts();
 
-        List<String> connectingWords = new ArrayList<>(1_000_000);
-        for (String word : wordList) {
-            if (word.length() == 5) {
-                connectingWords.add(word);
+            int bestStart = -1;
+            for (int i = 0; i < gapScores.length; i++) {
+                if (gapScores[i] > 0 && (bestStart == -1 || gapScores[i] > gapScores[bestStart])) {
+                    bestStart = i;
+                }
             }
-        }
 
-        int multiplierTileCount = (size - 1) / 5 + 1;
-        for (int i = 0; i < multiplierTileCount; i++) {
-            int previousY = (i - 1) * 5;
-            int currentY = i * 5;
+            if (bestStart == -1) {
+                return;
+            }
 
-            while (true) {
-                String currentWord = multiplierWords.poll();
-                if (currentWord == null) {
-                    break;
-                }
+            Direction direction = Direction.values()[bestStart / (size * size)];
+            int startX = bestStart % size;
+            int startY = bestStart / size % size;
 
-                if (i == 0) {
-                    board.applyMove(new Move(0, currentY, Direction.Horizontal, currentWord));
-                    break;
-                }
+            int cachedScore = gapScores[bestStart];
+            updateGapStart(search, bestStart);
 
-                Move bestConnectingMove = null;
-                int bestConnectingScore = 0;
+            if (gapScores[bestStart] != cachedScore) {
+                continue;
+            }
 
-                int currentWordLength = currentWord.length();
-                for (int j = 0; j < size && j < currentWordLength; j++) {
-                    char startCell = board.getCell(j, previousY);
-                    if (startCell == Board.EMPTY_CELL) {
-                        continue;
-                    }
+            String word = gapWords[bestStart];
 
-                    char endCell = currentWord.charAt(j);
+            int xDelta = direction == Direction.Horizontal ? 1 : 0;
+            int yDelta = direction == Direction.Horizontal ? 0 : 1;
 
-                    for (String connectingWord : connectingWords) {
-                        if (connectingWord.charAt(0) != startCell) {
-                            continue;
-                        }
+            int newCellCount = 0;
+            for (int i = 0; i < word.length(); i++) {
+                if (board.getCell(startX + i * xDelta, startY + i * yDelta) == Board.EMPTY_CELL) {
+                    newCells[newCellCount++] = i;
+                }
+            }
 
-                        String fullConnectingWord = connectingWord + endCell;
-                        if (currentWord.equals(fullConnectingWord) || !wordList.contains(fullConnectingWord)) {
-                            continue;
-                        }
+            playChain(board, startX, startY, direction, word, gapChainLengths[bestStart], this::applyMove);
 
-                        Move move = new Move(j, previousY, Direction.Vertical, connectingWord);
-                        int score = board.getMoveScore(move);
+            for (int i = 0; i < newCellCount; i++) {
+                markStaleGapStarts(startX + newCells[i] * xDelta, startY + newCells[i] * yDelta);
+            }
+        }
+    }
 
-                        if (score != Board.INVALID_MOVE && score > bestConnectingScore) {
-                            Move fullConnectingMove = new Move(j, previousY, Direction.Vertical, fullConnectingWord);
-                            if (board.getMoveScore(fullConnectingMove) == Board.INVALID_MOVE) {
-                                continue;
-                            }
+    private void updateStaleGapStarts() {
+        int staleCount = 0;
 
-                            bestConnectingMove = move;
-                            bestConnectingScore = score;
-                        }
+        for (Direction direction : Direction.values()) {
+            for (int line = 0; line < size; line++) {
+                int lastStale = staleGapStarts[direction.ordinal() * size + line];
+                if (lastStale == -1) {
+                    continue;
+                }
+
+                staleGapStarts[direction.ordinal() * size + line] = -1;
+
+                // Starts after the last empty cell of the line cannot cover an empty cell
+                int lastEmpty = -1;
+                for (int i = 0; i < size; i++) {
+                    int x = direction == Direction.Horizontal ? i : line;
+                    int y = direction == Direction.Horizontal ? line : i;
+
+                    if (board.getCell(x, y) == Board.EMPTY_CELL) {
+                        lastEmpty = i;
                     }
                 }
 
-                if (bestConnectingMove == null) {
-                    continue;
+                for (int i = 0; i <= lastStale; i++) {
+                    int x = direction == Direction.Horizontal ? i : line;
+                    int y = direction == Direction.Horizontal ? line : i;
+
+                    if (i <= lastEmpty) {
+                        gapStartBuffer[staleCount++] = getGapIndex(x, y, direction);
+                    } else {
+                        gapScores[getGapIndex(x, y, direction)] = 0;
+                    }
                 }
+            }
+        }
 
-                board.applyMove(bestConnectingMove);
-                board.applyMove(new Move(0, currentY, Direction.Horizontal, currentWord));
-                break;
+        if (parallel && staleCount >= PARALLEL_THRESHOLD) {
+            // Every start writes its own entries of the gap arrays and only reads the board
+            IntStream.range(0, staleCount).parallel().forEach(i -> updateGapStart(workerSearches.get(), gapStartBuffer[i]));
+        } else {
+            for (int i = 0; i < staleCount; i++) {
+                updateGapStart(search, gapStartBuffer[i]);
             }
         }
     }
 
-    private List<String> getBestMultiplierWords() {
-        Map<String, Integer> multiplierWords = new HashMap<>();
+    private void updateGapStart(StartSearch search, int index) {
+        Direction direction = Direction.values()[index / (size * size)];
+        int startX = index % size;
+        int startY = index / size % size;
 
-        for (String word : wordList) {
-            Move move = new Move(0, 0, Direction.Horizontal, word);
-            int score = board.getMoveScore(move);
+        gapScores[index] = 0;
 
-            if (score != Board.INVALID_MOVE) {
-                multiplierWords.put(word, score);
-            }
+        if (isValidStart(board, startX, startY) && search.search(startX, startY, direction)) {
+            gapWords[index] = search.bestWord;
+            gapChainLengths[index] = search.bestChainLengths;
+            gapScores[index] = search.bestScore;
+        }
+    }
+
+    /**
+     * Marks the starts affected by filling the given cell, its neighbors and the empty cells at the ends of its words.
+     */
+    private void markStaleGapStarts(int x, int y) {
+        markStaleGapStarts(x, y, 0, 0, false);
+        markStaleGapStarts(x, y, -1, 0, false);
+        markStaleGapStarts(x, y, 1, 0, false);
+        markStaleGapStarts(x, y, 0, -1, false);
+        markStaleGapStarts(x, y, 0, 1, false);
+
+        markStaleGapStarts(x, y, -1, 0, true);
+        markStaleGapStarts(x, y, 1, 0, true);
+        markStaleGapStarts(x, y, 0, -1, true);
+        markStaleGapStarts(x, y, 0, 1, true);
+    }
+
+    /**
+     * Marks the starts affected by the cell at the given offset of the given cell, or by the first empty cell in the
+     * direction of the offset when skipping filled cells.
+     */
+    private void markStaleGapStarts(int x, int y, int xDelta, int yDelta, boolean skipFilled) {
+        int cellX = x + xDelta;
+        int cellY = y + yDelta;
+
+        while (skipFilled && cellX >= 0 && cellX < size && cellY >= 0 && cellY < size && board.getCell(cellX, cellY) != Board.EMPTY_CELL) {
+            cellX += xDelta;
+            cellY += yDelta;
+        }
+
+        if (cellX < 0 || cellX >= size || cellY < 0 || cellY >= size) {
+            return;
+        }
+
+        int rowIndex = Direction.Horizontal.ordinal() * size + cellY;
+        int columnIndex = Direction.Vertical.ordinal() * size + cellX;
+
+        staleGapStarts[rowIndex] = Math.max(staleGapStarts[rowIndex], Math.min(cellX + 1, size - 1));
+        staleGapStarts[columnIndex] = Math.max(staleGapStarts[columnIndex], Math.min(cellY + 1, size - 1));
+    }
+
+    private int getGapIndex(int x, int y, Direction direction) {
+        return direction.ordinal() * size * size + y * size + x;
+    }
+
+    private boolean checkDeadline() {
+        if (!deadlineReached && System.nanoTime() >= deadline) {
+            deadlineReached = true;
+        }
+
+        return deadlineReached;
+    }
+
+    /**
+     * Records the time since the given start time as the given phase and returns the current time.
+     */
+    private long recordPhase(String phase, long startTime) {
+        long endTime = System.nanoTime();
+
+        if (metrics != null) {
+            metrics.addPhaseTime(phase, endTime - startTime);
+        }
+
+        return endTime;
+    }
+
+    /**
+     * Plays the skeleton of words covering the multiplier tiles found by {@link SkeletonOptimizer}. A board which
+     * already has moves, like a board resumed from a results file, keeps the skeleton it has.
+     */
+    void playBestMultiplierMoves() {
+        if (!board.getAppliedMoves().isEmpty()) {
+            return;
         }
 
-        return multiplierWords
-                .keySet()
-                .stream()
-                .sorted(Comparator.comparing(multiplierWords::get).reversed())
-                .collect(Collectors.toList());
+        SkeletonOptimizer skeletonOptimizer = new SkeletonOptimizer(size, board, wordList, SKELETON_BEAM_WIDTH);
+        skeletonOptimizer.setDeadline(deadline);
+
+        List<Move> skeletonMoves = skeletonOptimizer.optimize().getAppliedMoves();
+
+        for (int i = board.getAppliedMoves().size(); i < skeletonMoves.size(); i++) {
+            applyMove(skeletonMoves.get(i));
+        }
     }
 
     private void playBestWord(int startX, int startY, Direction direction) {
-        String bestWord = "";
-        int bestScore = 0;
+        if (search.search(startX, startY, direction)) {
+            playChain(board, startX, startY, direction, search.bestWord, search.bestChainLengths, this::applyMove);
+        }
+    }
 
-        for (String word : wordList) {
-            Move move = new Move(startX, startY, direction, word);
-            int score = board.getMoveScore(move);
+    private StartSearch createSearch() {
+        StartSearch search = new StartSearch(new MoveGenerator(board, wordList));
+        search.moveGenerator.setMetrics(metrics);
 
-            if (score != Board.INVALID_MOVE && score > bestScore) {
-                bestWord = word;
-                bestScore = score;
-            }
+        synchronized (searches) {
+            searches.add(search);
         }
 
-        for (int i = 0; i <= bestWord.length(); i++) {
-            Move subMove = new Move(startX, startY, direction, bestWord.substring(0, i));
-            if (board.getMoveScore(subMove) != Board.INVALID_MOVE) {
-                board.applyMove(subMove);
-            }
+        return search;
+    }
+
+    private void applyMove(Move move) {
+        board.applyMove(move);
+        listener.moveApplied(board, move);
+
+        if (board.getScore() > reportedScore) {
+            reportedScore = board.getScore();
+            listener.scoreImproved(board);
+        }
+    }
+
+    /**
+     * Plays the chain of prefixes of the given word with the given lengths, see {@link MoveGenerator#getChainLengths}.
+     */
+    static void playChain(Board board, int startX, int startY, Direction direction, String word, long chainLengths) {
+        playChain(board, startX, startY, direction, word, chainLengths, board::applyMove);
+    }
+
+    /**
+     * Plays the given chain like {@link #playChain(Board, int, int, Direction, String, long)}, but applies the moves
+     * through the given function.
+     */
+    private static void playChain(Board board, int startX, int startY, Direction direction, String word, long chainLengths, Consumer<Move> moveApplier) {
+        for (long remaining = chainLengths; remaining != 0; remaining &= remaining - 1) {
+            int length = Long.numberOfTrailingZeros(remaining);
+            moveApplier.accept(new Move(startX, startY, direction, word.substring(0, length)));
         }
     }
 
-    private boolean isValidStart(int x, int y) {
-        if (board.getCell(x, y) != Board.EMPTY_CELL) return true;
-        if (x != 0 && board.getCell(x - 1, y) != Board.EMPTY_CELL) return true;
-        if (x != size - 1 && board.getCell(x + 1, y) != Board.EMPTY_CELL) return true;
-        if (y != 0 && board.getCell(x, y - 1) != Board.EMPTY_CELL) return true;
-        if (y != size - 1 && board.getCell(x, y + 1) != Board.EMPTY_CELL) return true;
+    static boolean isValidStart(Board board, int x, int y) {
+        return board.isNearFilledCell(x, y);
+    }
+
+    /**
+     * Finds the best chain of a start cell, every thread needs its own instance.
+     */
+    private static class StartSearch {
+        private final MoveGenerator moveGenerator;
+        private final List<String> words = new ArrayList<>();
+
+        private String bestWord;
+        private long bestChainLengths;
+        private int bestScore;
+        private long evaluatedCount = 0;
+
+        private StartSearch(MoveGenerator moveGenerator) {
+            this.moveGenerator = moveGenerator;
+        }
 
-        return false;
+        /**
+         * Generates the words at the given start cell and stores the first one whose chain has the highest positive
+         * score. Returns false if no chain has a positive score.
+         */
+        private boolean search(int startX, int startY, Direction direction) {
+            moveGenerator.generateWords(startX, startY, direction, words);
+            evaluatedCount += words.size();
+
+            int bestIndex = -1;
+            bestScore = 0;
+
+            for (int i = 0; i < words.size(); i++) {
+                if (moveGenerator.getChainScore(i) > bestScore) {
+                    bestIndex = i;
+                    bestScore = moveGenerator.getChainScore(i);
+                }
+            }
+
+            if (bestIndex == -1) {
+                return false;
+            }
+
+            bestWord = words.get(bestIndex);
+            bestChainLengths = moveGenerator.getChainLengths(bestIndex);
+            return true;
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.model.Move;
+
+/**
+ * Receives the progress of a solver while it runs.
+ * <p>
+ * Methods are called on the solving thread with the board being solved, which keeps changing after the call returns.
+ * Listeners which keep a board around, or hand it to another thread, have to copy it first.
+ */
+public interface SolverListener {
+    SolverListener NONE = new SolverListener() {
+    };
+
+    /**
+     * Called after a move is applied to the board which will be part of the result.
+     */
+    default void moveApplied(Board board, Move move) {
+    }
+
+    /**
+     * Called whenever the given board has a higher score than any board reported before.
+     */
+    default void scoreImproved(Board board) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.jaspervanmerle.ptp2021;
+
+import java.util.List;
+
+/**
+ * Distributes a single time budget over the sizes of a sweep.
+ * <p>
+ * The score of a board grows with its number of cells, and so does what can be gained by spending more time on it,
+ * so every size gets a share of the remaining time proportional to its area. Shares are handed out when a size starts,
+ * which gives time left over by sizes that finished early to the sizes which still have to run.
+ */
+class TimeBudget {
+    private final long deadline;
+    private final int threads;
+
+    private long remainingWeight = 0;
+    private int remainingSizes;
+
+    TimeBudget(long budgetMs, List<Integer> sizes, int threads) {
+        this.deadline = System.nanoTime() + budgetMs * 1_000_000L;
+        this.threads = threads;
+
+        for (int size : sizes) {
+            remainingWeight += getWeight(size);
+        }
+
+        remainingSizes = sizes.size();
+    }
+
+    /**
+     * Returns the deadline, in terms of {@link System#nanoTime()}, of the given size which is starting now.
+     * Sizes running concurrently share the remaining time, so each gets its share multiplied by the number of sizes
+     * which can run at the same time, but no size gets more than the remaining time of the whole budget.
+     */
+    synchronized long startSize(int size) {
+        long now = System.nanoTime();
+        long remainingTime = Math.max(0, deadline - now);
+
+        long weight = getWeight(size);
+        int concurrentSizes = Math.min(threads, remainingSizes);
+
+        double share = (double) weight / remainingWeight * concurrentSizes;
+        long sizeTime = (long) (remainingTime * Math.min(1.0, share));
+
+        remainingWeight -= weight;
+        remainingSizes--;
+
+        return now + sizeTime;
+    }
+
+    private long getWeight(int size) {
+        return (long) size * size;
+    }
+}
@@ -0,0 +1,39 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.WordList;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles a text word list into the binary format of {@link WordList#fromBinaryFile(Path)}.
+ * Usage: {@code WordListCompiler <input text file> <output binary file>}.
+ */
+public class WordListCompiler {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: WordListCompiler <input text file> <output binary file>");
+        }
+
+        Path inputFile = Paths.get(args[0]);
+        Path outputFile = Paths.get(args[1]).toAbsolutePath();
+
+        WordList wordList;
+        try (InputStream inputStream = Files.newInputStream(inputFile)) {
+            wordList = WordList.fromStream(inputStream);
+        }
+
+        Files.createDirectories(outputFile.getParent());
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+            wordList.writeBinary(outputStream);
+        }
+
+        System.out.println("Compiled " + wordList.getSize() + " words into " + outputFile);
+    }
+}
@@ -4,59 +4,319 @@ import com.jaspervanmerle.ptp2021.model.Direction;
 import com.jaspervanmerle.ptp2021.model.Move;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 public class Board {
     public static final char EMPTY_CELL = '▢';
     public static final int INVALID_MOVE = -1;
+    public static final long ALL_LETTERS = -1L;
+
+    private static final int HORIZONTAL = Direction.Horizontal.ordinal();
+    private static final int VERTICAL = Direction.Vertical.ordinal();
 
     private final int size;
     private final WordList wordList;
 
-    private final char[][] cells;
+    private final CellRepresentation representation;
+
+    // The cells stored once per direction, lines[HORIZONTAL] has cell (x, y) at (x, y) and lines[VERTICAL] is its
+    // transposed mirror with cell (x, y) at (y, x). Moves are handled in terms of the lines of their direction, so a
+    // vertical move takes the same path as a horizontal one, with its column read as a row of the mirror.
+    private final CellStorage[] lines;
+    private final CellStorage cells;
+
+    // Cross-checks of every cell, indexed by direction of the move and across * size + along, where along is the
+    // position of the cell on the line in that direction and across the position of the line, see getLineIndex
+    // They are only up-to-date for empty cells and are updated whenever a cell changes
+    private final long[][] crossCheckMasks;
+    private final int[][] crossScores;
+    private final boolean[][] crossWords;
+
+    // Trie node of the part of the perpendicular word before the cell, so its id can be found without walking it again
+    private final int[][] crossPrefixNodes;
 
     private int score = 0;
     private final List<Move> appliedMoves = new ArrayList<>();
-    private final Set<String> playedWords = new HashSet<>();
+    private final BitSet playedWords = new BitSet();
+
+    private final MoveJournal journal;
+    private final List<Move> undoneMoves = new ArrayList<>();
+
+    // Scratch buffers shared by every score calculation so scoring does not allocate, a board cannot score moves on
+    // multiple threads at once
+    private final ScoringContext defaultContext;
+
+    // Only set when metrics are enabled, copies record into the same instance
+    private Metrics metrics;
 
     public Board(int size, WordList wordList) {
+        this(size, wordList, CellRepresentation.CharArray);
+    }
+
+    public Board(int size, WordList wordList, CellRepresentation representation) {
         this.size = size;
         this.wordList = wordList;
+        this.representation = representation;
 
-        cells = new char[size][size];
+        int directionCount = Direction.values().length;
 
-        for (int y = 0; y < size; y++) {
-            cells[y] = new char[size];
+        lines = new CellStorage[directionCount];
+        for (int i = 0; i < directionCount; i++) {
+            lines[i] = CellStorage.create(representation, size);
+        }
 
-            for (int x = 0; x < size; x++) {
-                cells[y][x] = EMPTY_CELL;
-            }
+        cells = lines[HORIZONTAL];
+
+        crossCheckMasks = new long[directionCount][size * size];
+        crossScores = new int[directionCount][size * size];
+        crossWords = new boolean[directionCount][size * size];
+        crossPrefixNodes = new int[directionCount][size * size];
+
+        for (int i = 0; i < directionCount; i++) {
+            Arrays.fill(crossCheckMasks[i], ALL_LETTERS);
+            Arrays.fill(crossPrefixNodes[i], WordList.NO_NODE);
         }
+
+        defaultContext = new ScoringContext(size);
+        journal = new MoveJournal();
+    }
+
+    private Board(Board other) {
+        size = other.size;
+        wordList = other.wordList;
+
+        representation = other.representation;
+
+        int directionCount = Direction.values().length;
+
+        lines = new CellStorage[directionCount];
+        for (int i = 0; i < directionCount; i++) {
+            lines[i] = other.lines[i].copy();
+        }
+
+        cells = lines[HORIZONTAL];
+
+        crossCheckMasks = new long[directionCount][];
+        crossScores = new int[directionCount][];
+        crossWords = new boolean[directionCount][];
+        crossPrefixNodes = new int[directionCount][];
+
+        for (int i = 0; i < directionCount; i++) {
+            crossCheckMasks[i] = other.crossCheckMasks[i].clone();
+            crossScores[i] = other.crossScores[i].clone();
+            crossWords[i] = other.crossWords[i].clone();
+            crossPrefixNodes[i] = other.crossPrefixNodes[i].clone();
+        }
+
+        score = other.score;
+        appliedMoves.addAll(other.appliedMoves);
+        playedWords.or(other.playedWords);
+
+        journal = other.journal.copy();
+        undoneMoves.addAll(other.undoneMoves);
+
+        metrics = other.metrics;
+
+        defaultContext = new ScoringContext(size);
+    }
+
+    /**
+     * Returns an independent copy of this board, sharing only the (immutable) word list.
+     * This copies a few flat arrays, which is a lot cheaper than replaying all applied moves.
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public CellRepresentation getRepresentation() {
+        return representation;
+    }
+
+    /**
+     * Returns the metrics which scored moves are recorded into, or null if metrics are disabled.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Records the outcome of every move scored from now on into the given metrics, null disables recording.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
     }
 
     public char getCell(int x, int y) {
-        return cells[y][x];
+        return cells.get(x, y);
     }
 
     public void setCell(int x, int y, char ch) {
-        cells[y][x] = ch;
+        setLineCells(x, y, ch);
+        updateCrossChecks(x, y);
+    }
+
+    /**
+     * Returns whether the given cell or one of its four neighbors is filled, which is required for any move starting
+     * at the cell to connect to the rest of the board.
+     */
+    public boolean isNearFilledCell(int x, int y) {
+        return cells.isNearFilledCell(x, y);
+    }
+
+    /**
+     * Returns the set of letter indices (see {@link WordList#getLetterIndex(char)}) which can be placed in the given
+     * empty cell by a move in the given direction without forming an invalid perpendicular word.
+     */
+    public long getCrossCheckMask(int x, int y, Direction direction) {
+        int directionIndex = direction.ordinal();
+        return directionIndex == HORIZONTAL ? getLineCrossCheckMask(directionIndex, x, y) : getLineCrossCheckMask(directionIndex, y, x);
+    }
+
+    /**
+     * Returns the cell at the given position along the given line of the given direction, see {@link #lines}.
+     */
+    char getLineCell(int directionIndex, int along, int across) {
+        return lines[directionIndex].get(along, across);
+    }
+
+    long getLineCrossCheckMask(int directionIndex, int along, int across) {
+        return crossCheckMasks[directionIndex][getLineIndex(along, across)];
+    }
+
+    /**
+     * Returns the score of the letters of the perpendicular word through the given empty cell without the letter of the
+     * cell itself, or -1 if placing a letter in the cell does not form a perpendicular word.
+     */
+    int getLineCrossWordScore(int directionIndex, int along, int across) {
+        int lineIndex = getLineIndex(along, across);
+        return crossWords[directionIndex][lineIndex] ? crossScores[directionIndex][lineIndex] : -1;
+    }
+
+    boolean isWordPlayed(int wordId) {
+        return playedWords.get(wordId);
+    }
+
+    /**
+     * Returns the cross-check of the given empty cell without the letters which form a perpendicular word that was
+     * played before, as moves placing those letters are invalid. If the cell has a perpendicular word, the ids of the
+     * words formed by the returned letters are stored in the given array, indexed by letter index. Unlike the
+     * cross-check this depends on the played words, so it is computed on every call.
+     */
+    long getLinePlayableLetters(int directionIndex, int along, int across, int[] crossWordIds) {
+        int lineIndex = getLineIndex(along, across);
+        long mask = crossCheckMasks[directionIndex][lineIndex];
+
+        if (!crossWords[directionIndex][lineIndex] || mask == 0) {
+            return mask;
+        }
+
+        for (int child = wordList.getFirstChildNode(crossPrefixNodes[directionIndex][lineIndex]); child != WordList.NO_NODE; child = wordList.getNextSiblingNode(child)) {
+            char ch = wordList.getNodeCharacter(child);
+            int letterIndex = wordList.getLetterIndex(ch);
+
+            if ((mask & (1L << letterIndex)) == 0) {
+                continue;
+            }
+
+            int crossWordId = getCrossWordId(directionIndex, along, across, ch);
+            if (playedWords.get(crossWordId)) {
+                mask &= ~(1L << letterIndex);
+            } else {
+                crossWordIds[letterIndex] = crossWordId;
+            }
+        }
+
+        return mask;
     }
 
     public void applyMove(Move move) {
-        int moveScore = getMoveScore(move, true);
+        applyMoveInternal(move);
+        undoneMoves.clear();
+    }
 
-        if (moveScore == INVALID_MOVE) {
-            throw new RuntimeException("Move is invalid");
+    /**
+     * Reverts the last applied move using the journal, which only touches the cells and words the move added.
+     * Cells changed through {@link #setCell(int, int, char)} are not tracked and are not reverted.
+     */
+    public void undoMove() {
+        if (appliedMoves.isEmpty()) {
+            throw new IllegalStateException("There are no moves to undo");
         }
 
-        score += moveScore;
-        appliedMoves.add(move);
+        int cellStart = journal.getLastMoveCellStart();
+        int cellEnd = journal.getCellCount();
+
+        for (int i = cellStart; i < cellEnd; i++) {
+            int cellIndex = journal.getCell(i);
+            setLineCells(cellIndex % size, cellIndex / size, EMPTY_CELL);
+        }
+
+        for (int i = cellStart; i < cellEnd; i++) {
+            int cellIndex = journal.getCell(i);
+            updateCrossChecks(cellIndex % size, cellIndex / size);
+        }
+
+        for (int i = journal.getLastMoveWordStart(); i < journal.getWordCount(); i++) {
+            playedWords.clear(journal.getWord(i));
+        }
+
+        score -= journal.getLastMoveScore();
+        journal.removeLastMove();
+
+        undoneMoves.add(appliedMoves.remove(appliedMoves.size() - 1));
+    }
+
+    /**
+     * Re-applies the last undone move. Applying any other move clears the moves which can be redone.
+     */
+    public void redoMove() {
+        if (undoneMoves.isEmpty()) {
+            throw new IllegalStateException("There are no moves to redo");
+        }
+
+        applyMoveInternal(undoneMoves.remove(undoneMoves.size() - 1));
+    }
+
+    /**
+     * Returns a checkpoint which {@link #rollback(int)} can return the board to.
+     */
+    public int checkpoint() {
+        return appliedMoves.size();
+    }
+
+    /**
+     * Undoes all moves applied since the given checkpoint was created.
+     */
+    public void rollback(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > appliedMoves.size()) {
+            throw new IllegalArgumentException("Invalid checkpoint " + checkpoint);
+        }
+
+        while (appliedMoves.size() > checkpoint) {
+            undoMove();
+        }
     }
 
     public int getMoveScore(Move move) {
-        return getMoveScore(move, false);
+        return getMoveScore(move.getStartX(), move.getStartY(), move.getDirection(), move.getWord());
+    }
+
+    public int getMoveScore(int startX, int startY, Direction direction, String word) {
+        return getMoveScore(defaultContext, startX, startY, direction, word, false);
+    }
+
+    /**
+     * Returns the score of placing the given slice of characters as a word, or {@link #INVALID_MOVE}.
+     * This does not allocate, which makes it suitable for scoring large numbers of candidates.
+     */
+    public int getMoveScore(int startX, int startY, Direction direction, char[] word, int offset, int length) {
+        return getMoveScore(defaultContext, startX, startY, direction, word, offset, length, false);
     }
 
     public int getScore() {
@@ -123,232 +383,331 @@ public class Board {
         return sb.toString();
     }
 
-    private int getMoveScore(Move move, boolean saveState) {
-        String word = move.getWord();
-        if (!wordList.contains(word)) {
-            return INVALID_MOVE;
+    private void applyMoveInternal(Move move) {
+        int moveScore = getMoveScore(defaultContext, move.getStartX(), move.getStartY(), move.getDirection(), move.getWord(), true);
+
+        if (moveScore == INVALID_MOVE) {
+            throw new RuntimeException("Move is invalid");
         }
 
-        char[] characters = move.getWord().toCharArray();
-        if (characters.length == 1) {
-            return INVALID_MOVE;
+        score += moveScore;
+        appliedMoves.add(move);
+    }
+
+    private int getMoveScore(ScoringContext context, int startX, int startY, Direction direction, String word, boolean saveState) {
+        int length = word.length();
+        if (length > size) {
+            return invalidMove(InvalidMoveReason.OutOfBounds);
         }
 
-        if (move.getDirection() == Direction.Horizontal) {
-            return getMoveScoreHorizontal(move.getStartX(), move.getStartY(), characters, saveState);
+        word.getChars(0, length, context.wordBuffer, 0);
+        return getMoveScore(context, startX, startY, direction, context.wordBuffer, 0, length, saveState);
+    }
+
+    private int getMoveScore(ScoringContext context, int startX, int startY, Direction direction, char[] word, int offset, int length, boolean saveState) {
+        if (length <= 1) {
+            return invalidMove(InvalidMoveReason.TooShort);
+        }
+
+        if (direction == Direction.Horizontal) {
+            return getMoveScoreAlongLine(context, HORIZONTAL, startX, startY, word, offset, length, saveState);
         } else {
-            return getMoveScoreVertical(move.getStartX(), move.getStartY(), characters, saveState);
+            return getMoveScoreAlongLine(context, VERTICAL, startY, startX, word, offset, length, saveState);
         }
     }
 
-    private int getMoveScoreHorizontal(int startX, int startY, char[] word, boolean saveState) {
-        int moveScore = 0;
+    /**
+     * Scores a move starting at the given position along the given line of the given direction, see {@link #lines}.
+     */
+    private int getMoveScoreAlongLine(ScoringContext context, int directionIndex, int along, int across, char[] word, int offset, int length, boolean saveState) {
+        CellStorage lineCells = lines[directionIndex];
 
-        if (startX + word.length > size) {
-            return INVALID_MOVE;
+        if (along + length > size) {
+            return invalidMove(InvalidMoveReason.OutOfBounds);
         }
 
-        if (startX != 0 && getCell(startX - 1, startY) != EMPTY_CELL) {
-            return INVALID_MOVE;
+        if (along != 0 && lineCells.isFilled(along - 1, across)) {
+            return invalidMove(InvalidMoveReason.Adjacency);
         }
 
-        if (startX + word.length < size && getCell(startX + word.length, startY) != EMPTY_CELL) {
-            return INVALID_MOVE;
+        if (along + length < size && lineCells.isFilled(along + length, across)) {
+            return invalidMove(InvalidMoveReason.Adjacency);
         }
 
-        Set<Integer> newCells = new HashSet<>();
+        // The word is looked up while checking the cells, so both checks stop at the first mismatch
+        int node = wordList.getRootNode();
 
-        for (int i = 0; i < word.length; i++) {
-            char cell = getCell(startX + i, startY);
+        for (int i = 0; i < length; i++) {
+            char cell = lineCells.get(along + i, across);
 
-            if (cell == EMPTY_CELL) {
-                newCells.add(encodeCoordinate(startX + i, startY));
+            if (cell != EMPTY_CELL && cell != word[offset + i]) {
+                return invalidMove(InvalidMoveReason.ConflictingCell);
             }
 
-            if (cell != EMPTY_CELL && cell != word[i]) {
-                return INVALID_MOVE;
+            node = wordList.getChildNode(node, word[offset + i]);
+            if (node == WordList.NO_NODE) {
+                return invalidMove(InvalidMoveReason.NotInDictionary);
             }
         }
 
-        Set<String> wordsThisMove = new HashSet<>();
+        int wordId = wordList.getNodeWordId(node);
+        if (wordId == WordList.NO_WORD) {
+            return invalidMove(InvalidMoveReason.NotInDictionary);
+        }
 
-        for (int i = 0; i < word.length; i++) {
-            if (getCell(startX + i, startY) != EMPTY_CELL) {
+        context.moveWordCount = 0;
+
+        int moveScore = 0;
+        int mainWordScore = wordList.getWordLetterSum(wordId);
+        int mainWordMultiplier = 1;
+
+        for (int i = 0; i < length; i++) {
+            int position = along + i;
+            char ch = word[offset + i];
+
+            if (lineCells.isFilled(position, across)) {
                 continue;
             }
 
-            setCell(startX + i, startY, word[i]);
-
-            int wordStartX = startX + i;
-            int wordStartY = startY;
+            int multiplier = isMultiplierCell(position, across) ? 3 : 1;
+            mainWordMultiplier *= multiplier;
 
-            while (wordStartY != 0 && getCell(wordStartX, wordStartY - 1) != EMPTY_CELL) {
-                wordStartY--;
+            int lineIndex = getLineIndex(position, across);
+            if (!crossWords[directionIndex][lineIndex]) {
+                continue;
             }
 
-            int indirectWordScore = getWordScore(wordStartX, wordStartY, 0, 1, newCells, wordsThisMove, saveState);
+            if (metrics != null) {
+                metrics.recordCrossWordCheck();
+            }
 
-            if (!saveState) {
-                setCell(startX + i, startY, EMPTY_CELL);
+            if (!isAllowed(crossCheckMasks[directionIndex][lineIndex], ch)) {
+                return invalidMove(InvalidMoveReason.InvalidCrossWord);
             }
 
-            if (indirectWordScore == INVALID_MOVE) {
+            if (!addMoveWord(context, getCrossWordId(directionIndex, position, across, ch))) {
                 return INVALID_MOVE;
             }
 
-            moveScore += indirectWordScore;
+            moveScore += (crossScores[directionIndex][lineIndex] + getLetterScore(ch)) * multiplier;
         }
 
-        char[] originalCells = new char[word.length];
-        for (int i = 0; i < word.length; i++) {
-            originalCells[i] = getCell(startX + i, startY);
-            setCell(startX + i, startY, word[i]);
+        if (!addMoveWord(context, wordId)) {
+            return INVALID_MOVE;
         }
 
-        int mainWordScore = getWordScore(startX, startY, 1, 0, newCells, wordsThisMove, saveState);
+        moveScore += mainWordScore * mainWordMultiplier;
 
-        if (!saveState) {
-            for (int i = 0; i < word.length; i++) {
-                setCell(startX + i, startY, originalCells[i]);
+        if (saveState) {
+            journal.startMove(moveScore);
+
+            for (int i = 0; i < length; i++) {
+                if (!lineCells.isFilled(along + i, across)) {
+                    int x = directionIndex == HORIZONTAL ? along + i : across;
+                    int y = directionIndex == HORIZONTAL ? across : along + i;
+
+                    setLineCells(x, y, word[offset + i]);
+                    journal.addCell(encodeCoordinate(x, y));
+                }
             }
-        }
 
-        if (mainWordScore == INVALID_MOVE) {
-            return INVALID_MOVE;
+            for (int i = 0; i < length; i++) {
+                if (directionIndex == HORIZONTAL) {
+                    updateCrossChecks(along + i, across);
+                } else {
+                    updateCrossChecks(across, along + i);
+                }
+            }
+
+            savePlayedWords(context);
         }
 
-        moveScore += mainWordScore;
+        if (metrics != null) {
+            metrics.recordValidMove();
+        }
 
         return moveScore;
     }
 
-    private int getMoveScoreVertical(int startX, int startY, char[] word, boolean saveState) {
-        int moveScore = 0;
-
-        if (startY + word.length > size) {
-            return INVALID_MOVE;
+    /**
+     * Adds a word formed by the move currently being scored, returns false if it is not a word, was played before or
+     * is formed twice. The reason is recorded here, so callers only have to return {@link #INVALID_MOVE}.
+     */
+    private boolean addMoveWord(ScoringContext context, int wordId) {
+        if (wordId == WordList.NO_WORD) {
+            invalidMove(InvalidMoveReason.InvalidCrossWord);
+            return false;
         }
 
-        if (startY != 0 && getCell(startX, startY - 1) != EMPTY_CELL) {
-            return INVALID_MOVE;
+        if (playedWords.get(wordId)) {
+            invalidMove(InvalidMoveReason.DuplicateWord);
+            return false;
         }
 
-        if (startY + word.length < size && getCell(startX, startY + word.length) != EMPTY_CELL) {
-            return INVALID_MOVE;
+        for (int i = 0; i < context.moveWordCount; i++) {
+            if (context.moveWordIds[i] == wordId) {
+                invalidMove(InvalidMoveReason.DuplicateWord);
+                return false;
+            }
         }
 
-        Set<Integer> newCells = new HashSet<>();
+        context.moveWordIds[context.moveWordCount++] = wordId;
+        return true;
+    }
 
-        for (int i = 0; i < word.length; i++) {
-            char cell = getCell(startX, startY + i);
+    private int invalidMove(InvalidMoveReason reason) {
+        if (metrics != null) {
+            metrics.recordInvalidMove(reason);
+        }
 
-            if (cell == EMPTY_CELL) {
-                newCells.add(encodeCoordinate(startX, startY + i));
-            }
+        return INVALID_MOVE;
+    }
 
-            if (cell != EMPTY_CELL && cell != word[i]) {
-                return INVALID_MOVE;
-            }
+    private void savePlayedWords(ScoringContext context) {
+        for (int i = 0; i < context.moveWordCount; i++) {
+            playedWords.set(context.moveWordIds[i]);
+            journal.addWord(context.moveWordIds[i]);
         }
+    }
 
-        Set<String> wordsThisMove = new HashSet<>();
-
-        for (int i = 0; i < word.length; i++) {
-            if (getCell(startX, startY + i) != EMPTY_CELL) {
-                continue;
-            }
+    /**
+     * Returns the id of the perpendicular word formed by placing the given letter in the given empty cell, which runs
+     * across the lines of the given direction.
+     */
+    private int getCrossWordId(int directionIndex, int along, int across, char ch) {
+        int node = crossPrefixNodes[directionIndex][getLineIndex(along, across)];
+        if (node == WordList.NO_NODE) {
+            return WordList.NO_WORD;
+        }
 
-            setCell(startX, startY + i, word[i]);
+        node = wordList.getChildNode(node, ch);
 
-            int wordStartX = startX;
-            int wordStartY = startY + i;
+        CellStorage lineCells = lines[directionIndex];
+        int end = lineCells.getRunEnd(along, across, 0, 1);
 
-            while (wordStartX != 0 && getCell(wordStartX - 1, wordStartY) != EMPTY_CELL) {
-                wordStartX--;
-            }
+        for (int position = across + 1; position <= end && node != WordList.NO_NODE; position++) {
+            node = wordList.getChildNode(node, lineCells.get(along, position));
+        }
 
-            int indirectWordScore = getWordScore(wordStartX, wordStartY, 1, 0, newCells, wordsThisMove, saveState);
+        return node == WordList.NO_NODE ? WordList.NO_WORD : wordList.getNodeWordId(node);
+    }
 
-            if (!saveState) {
-                setCell(startX, startY + i, EMPTY_CELL);
-            }
+    /**
+     * Recomputes the cross-checks of the empty cells whose perpendicular words changed when the given cell changed.
+     * These are the cell itself and the empty cells directly before and after the row and column runs through it.
+     */
+    private void updateCrossChecks(int x, int y) {
+        if (!cells.isFilled(x, y)) {
+            computeCrossChecks(x, y);
+        }
 
-            if (indirectWordScore == INVALID_MOVE) {
-                return INVALID_MOVE;
-            }
+        int left = cells.getRunStart(x, y, 1, 0) - 1;
+        int right = cells.getRunEnd(x, y, 1, 0) + 1;
+        int up = cells.getRunStart(x, y, 0, 1) - 1;
+        int down = cells.getRunEnd(x, y, 0, 1) + 1;
 
-            moveScore += indirectWordScore;
+        if (left >= 0) {
+            computeCrossChecks(left, y);
         }
 
-        char[] originalCells = new char[word.length];
-        for (int i = 0; i < word.length; i++) {
-            originalCells[i] = getCell(startX, startY + i);
-            setCell(startX, startY + i, word[i]);
+        if (right < size) {
+            computeCrossChecks(right, y);
         }
 
-        int mainWordScore = getWordScore(startX, startY, 0, 1, newCells, wordsThisMove, saveState);
-
-        if (!saveState) {
-            for (int i = 0; i < word.length; i++) {
-                setCell(startX, startY + i, originalCells[i]);
-            }
+        if (up >= 0) {
+            computeCrossChecks(x, up);
         }
 
-        if (mainWordScore == INVALID_MOVE) {
-            return INVALID_MOVE;
+        if (down < size) {
+            computeCrossChecks(x, down);
         }
+    }
 
-        moveScore += mainWordScore;
-
-        return moveScore;
+    private void computeCrossChecks(int x, int y) {
+        computeCrossCheck(HORIZONTAL, x, y);
+        computeCrossCheck(VERTICAL, y, x);
     }
 
-    private int getWordScore(int startX, int startY, int xDelta, int yDelta, Set<Integer> newCells, Set<String> wordsThisMove, boolean saveState) {
-        StringBuilder word = new StringBuilder();
-        int wordScore = 0;
-        int scoreMultiplier = 1;
+    /**
+     * Computes the cross-check of the given cell for moves in the given direction, the perpendicular word through the
+     * cell runs across the lines of that direction.
+     */
+    private void computeCrossCheck(int directionIndex, int along, int across) {
+        CellStorage lineCells = lines[directionIndex];
+        int lineIndex = getLineIndex(along, across);
+
+        int start = lineCells.getRunStart(along, across, 0, 1);
+        int end = lineCells.getRunEnd(along, across, 0, 1);
+
+        if (start == end) {
+            crossCheckMasks[directionIndex][lineIndex] = ALL_LETTERS;
+            crossScores[directionIndex][lineIndex] = 0;
+            crossWords[directionIndex][lineIndex] = false;
+            crossPrefixNodes[directionIndex][lineIndex] = WordList.NO_NODE;
+            return;
+        }
 
-        int currentX = startX;
-        int currentY = startY;
+        int crossScore = 0;
+        int prefixNode = wordList.getRootNode();
 
-        while (currentX < size && currentY < size) {
-            char cell = getCell(currentX, currentY);
+        for (int position = start; position < across; position++) {
+            char cell = lineCells.get(along, position);
 
-            if (cell == EMPTY_CELL) {
-                break;
+            crossScore += getLetterScore(cell);
+            if (prefixNode != WordList.NO_NODE) {
+                prefixNode = wordList.getChildNode(prefixNode, cell);
             }
+        }
 
-            word.append(cell);
+        for (int position = across + 1; position <= end; position++) {
+            crossScore += getLetterScore(lineCells.get(along, position));
+        }
 
-            wordScore += (cell - 'a') % 10;
-            if (currentX % 5 == 0 && currentY % 5 == 0 && newCells.contains(encodeCoordinate(currentX, currentY))) {
-                scoreMultiplier *= 3;
-            }
+        long mask = 0;
 
-            currentX += xDelta;
-            currentY += yDelta;
-        }
+        if (prefixNode != WordList.NO_NODE) {
+            for (int child = wordList.getFirstChildNode(prefixNode); child != WordList.NO_NODE; child = wordList.getNextSiblingNode(child)) {
+                int node = child;
 
-        String fullWord = word.toString();
+                for (int position = across + 1; position <= end && node != WordList.NO_NODE; position++) {
+                    node = wordList.getChildNode(node, lineCells.get(along, position));
+                }
 
-        if (fullWord.length() == 1) {
-            return 0;
+                if (node != WordList.NO_NODE && wordList.isWordNode(node)) {
+                    mask |= 1L << wordList.getLetterIndex(wordList.getNodeCharacter(child));
+                }
+            }
         }
 
-        if (!wordList.contains(fullWord) || playedWords.contains(fullWord) || wordsThisMove.contains(fullWord)) {
-            return INVALID_MOVE;
-        }
+        crossCheckMasks[directionIndex][lineIndex] = mask;
+        crossScores[directionIndex][lineIndex] = crossScore;
+        crossWords[directionIndex][lineIndex] = true;
+        crossPrefixNodes[directionIndex][lineIndex] = prefixNode;
+    }
 
-        wordsThisMove.add(fullWord);
+    private boolean isAllowed(long mask, char ch) {
+        int letterIndex = wordList.getLetterIndex(ch);
+        return letterIndex != WordList.NO_LETTER && (mask & (1L << letterIndex)) != 0;
+    }
 
-        if (saveState) {
-            playedWords.add(fullWord);
-        }
+    static boolean isMultiplierCell(int x, int y) {
+        return x % 5 == 0 && y % 5 == 0;
+    }
 
-        return wordScore * scoreMultiplier;
+    static int getLetterScore(char ch) {
+        return (ch - 'a') % 10;
     }
 
     private int encodeCoordinate(int x, int y) {
         return y * size + x;
     }
+
+    private int getLineIndex(int along, int across) {
+        return across * size + along;
+    }
+
+    private void setLineCells(int x, int y, char ch) {
+        lines[HORIZONTAL].set(x, y, ch);
+        lines[VERTICAL].set(y, x, ch);
+    }
 }
@@ -0,0 +1,112 @@
+package com.jaspervanmerle.ptp2021.core;
+
+class ByteArrayCellStorage implements CellStorage {
+    private static final int MAX_SIZE = 63;
+    private static final byte EMPTY_CODE = 0;
+    private static final char FIRST_LETTER = 'A';
+    private static final char LAST_LETTER = 'z';
+
+    private final int size;
+
+    // Letter codes indexed by y * size + x, letter ch is stored as ch - FIRST_LETTER + 1
+    private final byte[] cells;
+
+    // Bit x of rowMasks[y] and bit y of columnMasks[x] are set when cell (x, y) is filled
+    private final long[] rowMasks;
+    private final long[] columnMasks;
+
+    ByteArrayCellStorage(int size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Byte array cell storage supports sizes up to " + MAX_SIZE);
+        }
+
+        this.size = size;
+
+        cells = new byte[size * size];
+
+        rowMasks = new long[size];
+        columnMasks = new long[size];
+    }
+
+    private ByteArrayCellStorage(ByteArrayCellStorage other) {
+        size = other.size;
+
+        cells = other.cells.clone();
+
+        rowMasks = other.rowMasks.clone();
+        columnMasks = other.columnMasks.clone();
+    }
+
+    @Override
+    public char get(int x, int y) {
+        byte code = cells[y * size + x];
+        return code == EMPTY_CODE ? Board.EMPTY_CELL : (char) (FIRST_LETTER + code - 1);
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        checkCoordinate(x, y);
+
+        if (ch == Board.EMPTY_CELL) {
+            cells[y * size + x] = EMPTY_CODE;
+            rowMasks[y] &= ~(1L << x);
+            columnMasks[x] &= ~(1L << y);
+        } else {
+            if (ch < FIRST_LETTER || ch > LAST_LETTER) {
+                throw new IllegalArgumentException("Byte array cell storage only supports the characters " + FIRST_LETTER + " to " + LAST_LETTER);
+            }
+
+            cells[y * size + x] = (byte) (ch - FIRST_LETTER + 1);
+            rowMasks[y] |= 1L << x;
+            columnMasks[x] |= 1L << y;
+        }
+    }
+
+    @Override
+    public boolean isFilled(int x, int y) {
+        return (rowMasks[y] & (1L << x)) != 0;
+    }
+
+    @Override
+    public boolean isNearFilledCell(int x, int y) {
+        // Shifting by -1 would wrap around to bit 63, which is never set as sizes are at most 63
+        long rowNeighbors = (1L << x) | (1L << (x + 1)) | (x == 0 ? 0 : 1L << (x - 1));
+        long columnNeighbors = (1L << (y + 1)) | (y == 0 ? 0 : 1L << (y - 1));
+
+        return (rowMasks[y] & rowNeighbors) != 0 || (columnMasks[x] & columnNeighbors) != 0;
+    }
+
+    @Override
+    public int getRunStart(int x, int y, int xDelta, int yDelta) {
+        int position = xDelta == 1 ? x : y;
+        long mask = xDelta == 1 ? rowMasks[y] : columnMasks[x];
+
+        if (position == 0) {
+            return 0;
+        }
+
+        // Moves bit position - 1 to bit 63, the leading ones are the run before the cell
+        int runLength = Long.numberOfLeadingZeros(~mask << (64 - position));
+        return position - Math.min(runLength, position);
+    }
+
+    @Override
+    public int getRunEnd(int x, int y, int xDelta, int yDelta) {
+        int position = xDelta == 1 ? x : y;
+        long mask = xDelta == 1 ? rowMasks[y] : columnMasks[x];
+
+        // Bits past the edge of the board are zero in the mask, so the run always ends at the edge
+        return position + Long.numberOfTrailingZeros(~(mask >>> (position + 1)));
+    }
+
+    @Override
+    public CellStorage copy() {
+        return new ByteArrayCellStorage(this);
+    }
+
+    private void checkCoordinate(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside of the board");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.jaspervanmerle.ptp2021.core;
+
+/**
+ * The ways a {@link Board} can store its cells. Both behave identically, they only differ in speed.
+ */
+public enum CellRepresentation {
+    /**
+     * A {@code char[][]} of letters with {@link Board#EMPTY_CELL} for empty cells.
+     */
+    CharArray,
+
+    /**
+     * A flat {@code byte[]} of letter codes with per-row and per-column occupancy bitmasks, which turns adjacency
+     * checks and finding the ends of words into bit operations. Supports boards up to 63 cells wide.
+     */
+    ByteArray
+}
@@ -0,0 +1,46 @@
+package com.jaspervanmerle.ptp2021.core;
+
+/**
+ * Stores the letters on a board.
+ * <p>
+ * Runs are the filled cells directly before or after a cell on a line, which is what words and their boundaries are
+ * made of. Positions of runs are returned as the x coordinate for horizontal lines and the y coordinate for vertical
+ * lines.
+ */
+interface CellStorage {
+    char get(int x, int y);
+
+    void set(int x, int y, char ch);
+
+    boolean isFilled(int x, int y);
+
+    /**
+     * Returns whether the given cell or one of its four neighbors is filled.
+     */
+    boolean isNearFilledCell(int x, int y);
+
+    /**
+     * Returns the position of the first cell of the run ending directly before the given cell.
+     * This is the position of the given cell itself if the cell before it is empty.
+     */
+    int getRunStart(int x, int y, int xDelta, int yDelta);
+
+    /**
+     * Returns the position of the last cell of the run starting directly after the given cell.
+     * This is the position of the given cell itself if the cell after it is empty.
+     */
+    int getRunEnd(int x, int y, int xDelta, int yDelta);
+
+    CellStorage copy();
+
+    static CellStorage create(CellRepresentation representation, int size) {
+        switch (representation) {
+            case CharArray:
+                return new CharArrayCellStorage(size);
+            case ByteArray:
+                return new ByteArrayCellStorage(size);
+            default:
+                throw new IllegalArgumentException("Unknown cell representation " + representation);
+        }
+    }
+}
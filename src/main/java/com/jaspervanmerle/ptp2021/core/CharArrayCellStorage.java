@@ -0,0 +1,78 @@
+package com.jaspervanmerle.ptp2021.core;
+
+class CharArrayCellStorage implements CellStorage {
+    private final int size;
+    private final char[][] cells;
+
+    CharArrayCellStorage(int size) {
+        this.size = size;
+
+        cells = new char[size][size];
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                cells[y][x] = Board.EMPTY_CELL;
+            }
+        }
+    }
+
+    private CharArrayCellStorage(CharArrayCellStorage other) {
+        size = other.size;
+
+        cells = new char[size][];
+        for (int y = 0; y < size; y++) {
+            cells[y] = other.cells[y].clone();
+        }
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return cells[y][x];
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        cells[y][x] = ch;
+    }
+
+    @Override
+    public boolean isFilled(int x, int y) {
+        return cells[y][x] != Board.EMPTY_CELL;
+    }
+
+    @Override
+    public boolean isNearFilledCell(int x, int y) {
+        if (isFilled(x, y)) return true;
+        if (x != 0 && isFilled(x - 1, y)) return true;
+        if (x != size - 1 && isFilled(x + 1, y)) return true;
+        if (y != 0 && isFilled(x, y - 1)) return true;
+        if (y != size - 1 && isFilled(x, y + 1)) return true;
+
+        return false;
+    }
+
+    @Override
+    public int getRunStart(int x, int y, int xDelta, int yDelta) {
+        while (x - xDelta >= 0 && y - yDelta >= 0 && isFilled(x - xDelta, y - yDelta)) {
+            x -= xDelta;
+            y -= yDelta;
+        }
+
+        return xDelta == 1 ? x : y;
+    }
+
+    @Override
+    public int getRunEnd(int x, int y, int xDelta, int yDelta) {
+        while (x + xDelta < size && y + yDelta < size && isFilled(x + xDelta, y + yDelta)) {
+            x += xDelta;
+            y += yDelta;
+        }
+
+        return xDelta == 1 ? x : y;
+    }
+
+    @Override
+    public CellStorage copy() {
+        return new CharArrayCellStorage(this);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jaspervanmerle.ptp2021.core;
+
+/**
+ * The first check a move failed when it was scored, in the order {@link Board} performs the checks.
+ */
+public enum InvalidMoveReason {
+    TooShort,
+    OutOfBounds,
+    Adjacency,
+    ConflictingCell,
+    NotInDictionary,
+    InvalidCrossWord,
+    DuplicateWord
+}
@@ -0,0 +1,175 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and phase timers of a single solve.
+ * <p>
+ * {@link Board}, {@link MoveGenerator} and the solvers only record anything when an instance is given to them, without
+ * one the cost is a null check per invalid move, per perpendicular word and per generated start cell. The greedy steps
+ * choose from generated words without scoring them on the board, so their work shows in the candidate and pruning
+ * counters rather than in the move counters.
+ */
+public class Metrics implements MetricsMXBean {
+    private final int size;
+
+    private final LongAdder evaluatedCandidates = new LongAdder();
+    private final LongAdder prunedLetters = new LongAdder();
+    private final LongAdder prunedDuplicatePaths = new LongAdder();
+    private final LongAdder validMoves = new LongAdder();
+    private final LongAdder[] invalidMoves;
+    private final LongAdder crossWordChecks = new LongAdder();
+
+    // Phase durations in nanoseconds, in the order the phases first finished
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+
+    public Metrics(int size) {
+        this.size = size;
+
+        invalidMoves = new LongAdder[InvalidMoveReason.values().length];
+        for (int i = 0; i < invalidMoves.length; i++) {
+            invalidMoves[i] = new LongAdder();
+        }
+    }
+
+    public void addCandidates(long count) {
+        evaluatedCandidates.add(count);
+    }
+
+    /**
+     * Adds the number of letters the move generator skipped because they are not playable in a cell, and the number of
+     * paths it skipped because they would form the same perpendicular word twice.
+     */
+    public void addGeneratorPrunes(long letterCount, long duplicatePathCount) {
+        prunedLetters.add(letterCount);
+        prunedDuplicatePaths.add(duplicatePathCount);
+    }
+
+    public void recordValidMove() {
+        validMoves.increment();
+    }
+
+    public void recordInvalidMove(InvalidMoveReason reason) {
+        invalidMoves[reason.ordinal()].increment();
+    }
+
+    public void recordCrossWordCheck() {
+        crossWordChecks.increment();
+    }
+
+    /**
+     * Adds the given duration to the total time spent in the given phase.
+     */
+    public synchronized void addPhaseTime(String phase, long nanos) {
+        phaseTimes.merge(phase, nanos, Long::sum);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public long getEvaluatedCandidateCount() {
+        return evaluatedCandidates.sum();
+    }
+
+    @Override
+    public long getPrunedLetterCount() {
+        return prunedLetters.sum();
+    }
+
+    @Override
+    public long getPrunedDuplicatePathCount() {
+        return prunedDuplicatePaths.sum();
+    }
+
+    @Override
+    public long getValidMoveCount() {
+        return validMoves.sum();
+    }
+
+    public long getInvalidMoveCount(InvalidMoveReason reason) {
+        return invalidMoves[reason.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getInvalidMoveCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (InvalidMoveReason reason : InvalidMoveReason.values()) {
+            counts.put(reason.name(), getInvalidMoveCount(reason));
+        }
+
+        return counts;
+    }
+
+    @Override
+    public long getCrossWordCheckCount() {
+        return crossWordChecks.sum();
+    }
+
+    @Override
+    public synchronized Map<String, Double> getPhaseTimesMs() {
+        Map<String, Double> times = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : phaseTimes.entrySet()) {
+            times.put(entry.getKey(), entry.getValue() / 1e6);
+        }
+
+        return times;
+    }
+
+    /**
+     * Returns all counters and phase times as a JSON object.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\n");
+        sb.append("  \"size\": ").append(size).append(",\n");
+
+        sb.append("  \"candidates\": {\n");
+        sb.append("    \"evaluated\": ").append(getEvaluatedCandidateCount()).append(",\n");
+        sb.append("    \"prunedLetters\": ").append(getPrunedLetterCount()).append(",\n");
+        sb.append("    \"prunedDuplicatePaths\": ").append(getPrunedDuplicatePathCount()).append("\n");
+        sb.append("  },\n");
+
+        sb.append("  \"moves\": {\n");
+        sb.append("    \"valid\": ").append(getValidMoveCount()).append(",\n");
+        sb.append("    \"invalid\": {");
+        appendEntries(sb, getInvalidMoveCounts(), "    ");
+        sb.append("}\n");
+        sb.append("  },\n");
+
+        sb.append("  \"crossWordsChecked\": ").append(getCrossWordCheckCount()).append(",\n");
+
+        sb.append("  \"phaseTimesMs\": {");
+        appendEntries(sb, getPhaseTimesMs(), "  ");
+        sb.append("}\n");
+
+        sb.append("}\n");
+
+        return sb.toString();
+    }
+
+    private void appendEntries(StringBuilder sb, Map<String, ? extends Number> entries, String indent) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        sb.append('\n');
+
+        int i = 0;
+        for (Map.Entry<String, ? extends Number> entry : entries.entrySet()) {
+            Number value = entry.getValue();
+
+            sb.append(indent).append("  \"").append(entry.getKey()).append("\": ");
+            sb.append(value instanceof Double ? String.format(Locale.ROOT, "%.3f", value.doubleValue()) : value.toString());
+            sb.append(++i < entries.size() ? ",\n" : "\n");
+        }
+
+        sb.append(indent);
+    }
+}
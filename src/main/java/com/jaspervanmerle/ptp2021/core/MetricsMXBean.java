@@ -0,0 +1,24 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link Metrics}, so the counters of a running solve can be inspected with JConsole.
+ */
+public interface MetricsMXBean {
+    int getSize();
+
+    long getEvaluatedCandidateCount();
+
+    long getPrunedLetterCount();
+
+    long getPrunedDuplicatePathCount();
+
+    long getValidMoveCount();
+
+    Map<String, Long> getInvalidMoveCounts();
+
+    long getCrossWordCheckCount();
+
+    Map<String, Double> getPhaseTimesMs();
+}
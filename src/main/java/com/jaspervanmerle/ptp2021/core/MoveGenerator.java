@@ -0,0 +1,285 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import com.jaspervanmerle.ptp2021.model.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generates the words which can be placed at a given start cell by walking the word list's trie along the board,
+ * together with the best chain of prefixes to play with each of them, see {@link #getChainScore(int)}.
+ */
+public class MoveGenerator {
+    private final Board board;
+    private final WordList wordList;
+    private final int size;
+
+    private int directionIndex;
+    private int along;
+    private int across;
+    private int maxLength;
+    private List<String> words;
+    private int[] wordIds = new int[256];
+    private int[] chainScores = new int[256];
+    private long[] chainLengths = new long[256];
+
+    // Indexed by length along the current path: the score of the perpendicular words formed by the first length
+    // letters, the product of the multipliers of the empty cells they cover, and the word id of the prefixes which can
+    // be played as a move, or NO_WORD for other prefixes
+    private final int[] pathCrossScores;
+    private final int[] pathMultipliers;
+    private final int[] pathWordIds;
+
+    // Lengths of the prefixes which can be part of the chain of the word being added, and the score of the main words
+    // and the lengths of the best chain ending in each of them
+    private final int[] chainPrefixLengths;
+    private final int[] chainMainScores;
+    private final long[] chainPrefixChains;
+
+    // Id of the perpendicular word formed by the letter at every index along the current path, or NO_WORD
+    private final int[] pathCrossWordIds;
+
+    // Playable letters of the cells of the current line and the perpendicular words they form, computed when a cell
+    // is first reached in a call
+    private final long[] playableMasks;
+    private final int[][] crossWordIds;
+    private final int[] playableMaskCalls;
+    private int call = 0;
+
+    private Metrics metrics;
+    private long prunedLetterCount;
+    private long prunedDuplicatePathCount;
+
+    public MoveGenerator(Board board, WordList wordList) {
+        this.board = board;
+        this.wordList = wordList;
+        this.size = board.getSize();
+        this.playableMasks = new long[size];
+        this.crossWordIds = new int[size][WordList.MAX_LETTERS];
+        this.playableMaskCalls = new int[size];
+
+        this.pathCrossScores = new int[size + 1];
+        this.pathMultipliers = new int[size + 1];
+        this.pathWordIds = new int[size + 1];
+
+        this.chainPrefixLengths = new int[size + 1];
+        this.chainMainScores = new int[size + 1];
+        this.chainPrefixChains = new long[size + 1];
+        this.pathCrossWordIds = new int[size];
+    }
+
+    /**
+     * Records the letters and paths skipped while generating into the given metrics, null disables recording.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public List<String> generateWords(int startX, int startY, Direction direction) {
+        List<String> words = new ArrayList<>();
+        generateWords(startX, startY, direction, words);
+        return words;
+    }
+
+    /**
+     * Replaces the contents of the given list with the generated words, allowing callers to reuse a single list.
+     * The ids of the generated words and their chains are available through {@link #getWordId(int)},
+     * {@link #getChainScore(int)} and {@link #getChainLengths(int)} until the next call.
+     */
+    public void generateWords(int startX, int startY, Direction direction, List<String> words) {
+        directionIndex = direction.ordinal();
+        along = direction == Direction.Horizontal ? startX : startY;
+        across = direction == Direction.Horizontal ? startY : startX;
+        maxLength = size - along;
+        this.words = words;
+        call++;
+
+        words.clear();
+
+        pathMultipliers[0] = 1;
+
+        if (along > 0 && board.getLineCell(directionIndex, along - 1, across) != Board.EMPTY_CELL) {
+            return;
+        }
+
+        prunedLetterCount = 0;
+        prunedDuplicatePathCount = 0;
+
+        extend(wordList.getRootNode(), 0);
+
+        if (metrics != null) {
+            metrics.addGeneratorPrunes(prunedLetterCount, prunedDuplicatePathCount);
+        }
+    }
+
+    /**
+     * Returns the id of the word at the given index of the words generated by the last call to generateWords.
+     */
+    public int getWordId(int index) {
+        return wordIds[index];
+    }
+
+    /**
+     * Returns the score of the best chain of moves ending in the word at the given index, which plays the prefixes
+     * returned by {@link #getChainLengths(int)} in order of increasing length. This is the total score of these moves
+     * when played on the board as it was during the last call to generateWords.
+     */
+    public int getChainScore(int index) {
+        return chainScores[index];
+    }
+
+    /**
+     * Returns the lengths of the prefixes played by the best chain ending in the word at the given index as a bit set,
+     * bit n is set when the prefix of length n is played. The bit of the length of the word itself is always set.
+     */
+    public long getChainLengths(int index) {
+        return chainLengths[index];
+    }
+
+    private void extend(int node, int index) {
+        if (index == maxLength) {
+            return;
+        }
+
+        int position = along + index;
+        char cell = board.getLineCell(directionIndex, position, across);
+
+        if (cell != Board.EMPTY_CELL) {
+            int child = wordList.getChildNode(node, cell);
+
+            if (child != WordList.NO_NODE) {
+                pathCrossScores[index + 1] = pathCrossScores[index];
+                pathMultipliers[index + 1] = pathMultipliers[index];
+                pathCrossWordIds[index] = WordList.NO_WORD;
+                visit(child, index);
+            }
+
+            return;
+        }
+
+        int multiplier = Board.isMultiplierCell(position, across) ? 3 : 1;
+        int crossWordScore = board.getLineCrossWordScore(directionIndex, position, across);
+
+        pathMultipliers[index + 1] = pathMultipliers[index] * multiplier;
+
+        if (playableMaskCalls[position] != call) {
+            playableMasks[position] = board.getLinePlayableLetters(directionIndex, position, across, crossWordIds[position]);
+            playableMaskCalls[position] = call;
+        }
+
+        long playableMask = playableMasks[position];
+
+        for (int child = wordList.getFirstChildNode(node); child != WordList.NO_NODE; child = wordList.getNextSiblingNode(child)) {
+            char ch = wordList.getNodeCharacter(child);
+            int letterIndex = wordList.getLetterIndex(ch);
+
+            if ((playableMask & (1L << letterIndex)) == 0) {
+                prunedLetterCount++;
+                continue;
+            }
+
+            if (crossWordScore == -1) {
+                pathCrossScores[index + 1] = pathCrossScores[index];
+                pathCrossWordIds[index] = WordList.NO_WORD;
+            } else {
+                // Every word through this cell would form the same perpendicular word twice
+                int crossWordId = crossWordIds[position][letterIndex];
+                if (isCrossWordOnPath(crossWordId, 0, index)) {
+                    prunedDuplicatePathCount++;
+                    continue;
+                }
+
+                pathCrossScores[index + 1] = pathCrossScores[index] + (crossWordScore + Board.getLetterScore(ch)) * multiplier;
+                pathCrossWordIds[index] = crossWordId;
+            }
+
+            visit(child, index);
+        }
+    }
+
+    private void visit(int node, int index) {
+        int length = index + 1;
+
+        boolean endsWord = length == maxLength
+                || board.getLineCell(directionIndex, along + length, across) == Board.EMPTY_CELL;
+
+        pathWordIds[length] = WordList.NO_WORD;
+
+        if (length > 1 && endsWord && wordList.isWordNode(node)) {
+            int wordId = wordList.getNodeWordId(node);
+
+            if (!board.isWordPlayed(wordId) && !isCrossWordOnPath(wordId, 0, length)) {
+                pathWordIds[length] = wordId;
+                addWord(node, length);
+            }
+        }
+
+        extend(node, index + 1);
+    }
+
+    /**
+     * Adds the word ending in the given node together with its best chain. A prefix which can be played as a move can
+     * be part of the chain unless a later letter of the word forms it again as perpendicular word. The main word of a
+     * move scores its letter sum times the multipliers of the cells it fills, so the best chain ending in every allowed
+     * prefix either consists of that prefix alone or extends the best chain ending in a shorter allowed prefix.
+     */
+    private void addWord(int node, int length) {
+        int prefixCount = 0;
+        for (int prefixLength = 2; prefixLength < length; prefixLength++) {
+            int prefixWordId = pathWordIds[prefixLength];
+
+            if (prefixWordId != WordList.NO_WORD && !isCrossWordOnPath(prefixWordId, prefixLength, length)) {
+                chainPrefixLengths[prefixCount++] = prefixLength;
+            }
+        }
+
+        chainPrefixLengths[prefixCount] = length;
+
+        for (int i = 0; i <= prefixCount; i++) {
+            int prefixLength = chainPrefixLengths[i];
+            int letterSum = wordList.getWordLetterSum(pathWordIds[prefixLength]);
+
+            int mainScore = letterSum * pathMultipliers[prefixLength];
+            long lengths = 1L << prefixLength;
+
+            for (int j = 0; j < i; j++) {
+                int score = chainMainScores[j] + letterSum * (pathMultipliers[prefixLength] / pathMultipliers[chainPrefixLengths[j]]);
+
+                if (score > mainScore) {
+                    mainScore = score;
+                    lengths = chainPrefixChains[j] | (1L << prefixLength);
+                }
+            }
+
+            chainMainScores[i] = mainScore;
+            chainPrefixChains[i] = lengths;
+        }
+
+        int index = words.size();
+        if (index == wordIds.length) {
+            wordIds = Arrays.copyOf(wordIds, wordIds.length * 2);
+            chainScores = Arrays.copyOf(chainScores, chainScores.length * 2);
+            chainLengths = Arrays.copyOf(chainLengths, chainLengths.length * 2);
+        }
+
+        wordIds[index] = pathWordIds[length];
+        chainScores[index] = chainMainScores[prefixCount] + pathCrossScores[length];
+        chainLengths[index] = chainPrefixChains[prefixCount];
+        words.add(wordList.getNodeWord(node));
+    }
+
+    /**
+     * Returns whether one of the letters at the given range of indices along the current path forms the given word as
+     * perpendicular word.
+     */
+    private boolean isCrossWordOnPath(int wordId, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (pathCrossWordIds[i] == wordId) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
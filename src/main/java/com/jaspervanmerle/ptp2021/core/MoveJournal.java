@@ -0,0 +1,107 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import java.util.Arrays;
+
+/**
+ * Records the changes made by every applied move: the cells it filled, the words it added and its score.
+ * This is all that is needed to undo a move, and a lot less than a copy of the board.
+ */
+class MoveJournal {
+    private int[] cells = new int[256];
+    private int cellCount = 0;
+
+    private int[] words = new int[256];
+    private int wordCount = 0;
+
+    private int[] moveCellStarts = new int[64];
+    private int[] moveWordStarts = new int[64];
+    private int[] moveScores = new int[64];
+    private int moveCount = 0;
+
+    MoveJournal() {
+    }
+
+    private MoveJournal(MoveJournal other) {
+        cells = other.cells.clone();
+        cellCount = other.cellCount;
+
+        words = other.words.clone();
+        wordCount = other.wordCount;
+
+        moveCellStarts = other.moveCellStarts.clone();
+        moveWordStarts = other.moveWordStarts.clone();
+        moveScores = other.moveScores.clone();
+        moveCount = other.moveCount;
+    }
+
+    MoveJournal copy() {
+        return new MoveJournal(this);
+    }
+
+    void startMove(int score) {
+        if (moveCount == moveScores.length) {
+            moveCellStarts = Arrays.copyOf(moveCellStarts, moveCount * 2);
+            moveWordStarts = Arrays.copyOf(moveWordStarts, moveCount * 2);
+            moveScores = Arrays.copyOf(moveScores, moveCount * 2);
+        }
+
+        moveCellStarts[moveCount] = cellCount;
+        moveWordStarts[moveCount] = wordCount;
+        moveScores[moveCount] = score;
+        moveCount++;
+    }
+
+    void addCell(int cellIndex) {
+        if (cellCount == cells.length) {
+            cells = Arrays.copyOf(cells, cellCount * 2);
+        }
+
+        cells[cellCount++] = cellIndex;
+    }
+
+    void addWord(int wordId) {
+        if (wordCount == words.length) {
+            words = Arrays.copyOf(words, wordCount * 2);
+        }
+
+        words[wordCount++] = wordId;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    int getLastMoveScore() {
+        return moveScores[moveCount - 1];
+    }
+
+    int getLastMoveCellStart() {
+        return moveCellStarts[moveCount - 1];
+    }
+
+    int getLastMoveWordStart() {
+        return moveWordStarts[moveCount - 1];
+    }
+
+    int getCellCount() {
+        return cellCount;
+    }
+
+    int getCell(int index) {
+        return cells[index];
+    }
+
+    int getWordCount() {
+        return wordCount;
+    }
+
+    int getWord(int index) {
+        return words[index];
+    }
+
+    void removeLastMove() {
+        moveCount--;
+        cellCount = moveCellStarts[moveCount];
+        wordCount = moveWordStarts[moveCount];
+    }
+}
@@ -0,0 +1,15 @@
+package com.jaspervanmerle.ptp2021.core;
+
+/**
+ * Scratch buffers used while scoring a move.
+ */
+class ScoringContext {
+    final char[] wordBuffer;
+    final int[] moveWordIds;
+    int moveWordCount;
+
+    ScoringContext(int size) {
+        wordBuffer = new char[size];
+        moveWordIds = new int[size + 1];
+    }
+}
@@ -1,31 +1,738 @@
 package com.jaspervanmerle.ptp2021.core;
 
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashSet;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
 
+/**
+ * A dictionary backed by a trie.
+ * <p>
+ * The trie is stored in flat arrays using first-child/next-sibling links, siblings are kept sorted by character.
+ * This keeps the memory footprint small while still supporting prefix and pattern queries.
+ * <p>
+ * Views created by {@link #withMaxLength(int)} share the trie with the list they were created from. Creating a view
+ * freezes both lists, after which they are immutable and can safely be read from multiple threads.
+ * <p>
+ * A list can be written to a binary file with {@link #writeBinary(OutputStream)}, which {@link #fromBinaryFile(Path)}
+ * opens without parsing: the trie arrays are copied out of a memory-mapped file in bulk and the words are only decoded
+ * from it when they are requested.
+ */
 public class WordList implements Iterable<String> {
-    private final Set<String> words = new HashSet<>(1_000_000);
+    public static final char WILDCARD = '?';
+    public static final int NO_NODE = -1;
+    public static final int NO_WORD = -1;
+    public static final int NO_LETTER = -1;
+    public static final int MAX_LETTERS = 64;
+
+    private static final int ROOT_NODE = 0;
+
+    private static final int[] EMPTY_IDS = new int[0];
+
+    private static final int BINARY_MAGIC = 0x50545057;
+    private static final int BINARY_VERSION = 1;
+
+    private char[] nodeCharacters = new char[1024];
+    private int[] firstChildren = new int[1024];
+    private int[] nextSiblings = new int[1024];
+    private int[] nodeWords = new int[1024];
+    private int[] nodeDepths = new int[1024];
+    private int nodeCount = 0;
+
+    // Sum of the letter scores of the path to every node, and of every word indexed by id
+    private int[] nodeLetterSums = new int[1024];
+    private int[] wordLetterSums;
+
+    private final byte[] letterIndices;
+    private int letterCount = 0;
+
+    private final List<String> words;
+
+    private final int maxLength;
+    private final int size;
+    private boolean frozen = false;
+
+    // The list the indexes are built on, views derive their indexes from the indexes of the list they were created from
+    private final WordList indexSource;
+
+    // Word id indexes, built the first time they are used as the letter position index in particular is large
+    // Building an index freezes the list, so the indexes never become outdated
+    private int[] wordLengths;
+    private int[][] wordIdsByLength;
+    private int[][] wordIdsByLengthAndEnds;
+    private int[][][] wordIdsByPositionAndLetter;
+
+    public WordList() {
+        letterIndices = new byte[Character.MAX_VALUE + 1];
+        words = new ArrayList<>();
+        wordLetterSums = new int[1024];
+        maxLength = Integer.MAX_VALUE;
+        size = -1;
+        indexSource = this;
+
+        createNode('\0', 0, 0);
+    }
+
+    private WordList(WordList source, int maxLength) {
+        nodeCharacters = source.nodeCharacters;
+        firstChildren = source.firstChildren;
+        nextSiblings = source.nextSiblings;
+        nodeWords = source.nodeWords;
+        nodeDepths = source.nodeDepths;
+        nodeCount = source.nodeCount;
+
+        nodeLetterSums = source.nodeLetterSums;
+        wordLetterSums = source.wordLetterSums;
+
+        letterIndices = source.letterIndices;
+        letterCount = source.letterCount;
+
+        words = source.words;
+
+        this.maxLength = Math.min(maxLength, source.maxLength);
+        frozen = true;
+        indexSource = source.indexSource;
+
+        int wordCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (isWordNode(node)) {
+                wordCount++;
+            }
+        }
+
+        size = wordCount;
+    }
+
+    private WordList(char[] nodeCharacters, int[] firstChildren, int[] nextSiblings, int[] nodeWords, int[] nodeDepths, char[] letters, List<String> words) {
+        this.nodeCharacters = nodeCharacters;
+        this.firstChildren = firstChildren;
+        this.nextSiblings = nextSiblings;
+        this.nodeWords = nodeWords;
+        this.nodeDepths = nodeDepths;
+        nodeCount = nodeCharacters.length;
+
+        // Parents are always created before their children, so a single pass in node order computes all sums
+        nodeLetterSums = new int[nodeCount];
+        wordLetterSums = new int[words.size()];
+
+        for (int node = 0; node < nodeCount; node++) {
+            for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                nodeLetterSums[child] = nodeLetterSums[node] + Board.getLetterScore(nodeCharacters[child]);
+            }
+
+            if (nodeWords[node] != NO_WORD) {
+                wordLetterSums[nodeWords[node]] = nodeLetterSums[node];
+            }
+        }
+
+        letterIndices = new byte[Character.MAX_VALUE + 1];
+        for (int i = 0; i < letters.length; i++) {
+            letterIndices[letters[i]] = (byte) (i + 1);
+        }
+
+        letterCount = letters.length;
+
+        this.words = words;
+
+        maxLength = Integer.MAX_VALUE;
+        size = -1;
+        frozen = true;
+        indexSource = this;
+    }
+
+    /**
+     * Returns an immutable view of this list containing only the words with at most the given length.
+     * The view shares all data with this list, which is frozen so that it can no longer be modified.
+     */
+    public WordList withMaxLength(int maxLength) {
+        frozen = true;
+        return new WordList(this, maxLength);
+    }
 
     public void addWord(String word) {
-        words.add(word);
+        if (frozen) {
+            throw new IllegalStateException("Cannot add words to a frozen word list");
+        }
+
+        int node = ROOT_NODE;
+
+        for (int i = 0; i < word.length(); i++) {
+            char ch = word.charAt(i);
+
+            if (letterIndices[ch] == 0) {
+                if (letterCount == MAX_LETTERS) {
+                    throw new IllegalStateException("Word list cannot contain more than " + MAX_LETTERS + " distinct letters");
+                }
+
+                letterIndices[ch] = (byte) ++letterCount;
+            }
+
+            node = getOrCreateChild(node, ch);
+        }
+
+        if (nodeWords[node] == NO_WORD) {
+            if (words.size() == wordLetterSums.length) {
+                wordLetterSums = Arrays.copyOf(wordLetterSums, words.size() * 2);
+            }
+
+            nodeWords[node] = words.size();
+            wordLetterSums[words.size()] = nodeLetterSums[node];
+            words.add(word);
+        }
     }
 
     public boolean contains(String word) {
-        return words.contains(word);
+        int node = findNode(word);
+        return node != NO_NODE && isWordNode(node);
+    }
+
+    /**
+     * Returns the dense id of the given word, or {@link #NO_WORD} if it is not in the list.
+     * Ids are assigned in insertion order, starting at 0.
+     */
+    public int getWordId(String word) {
+        int node = findNode(word);
+        return node == NO_NODE ? NO_WORD : getNodeWordId(node);
+    }
+
+    public int getWordId(char[] word, int offset, int length) {
+        int node = ROOT_NODE;
+
+        for (int i = 0; i < length && node != NO_NODE; i++) {
+            node = getChild(node, word[offset + i]);
+        }
+
+        return node == NO_NODE ? NO_WORD : getNodeWordId(node);
+    }
+
+    public String getWord(int wordId) {
+        return words.get(wordId);
+    }
+
+    /**
+     * Returns the sum of the letter scores of the given word, which is its score when no multipliers apply.
+     */
+    public int getWordLetterSum(int wordId) {
+        return wordLetterSums[wordId];
+    }
+
+    public boolean containsPrefix(String prefix) {
+        return findNode(prefix) != NO_NODE;
+    }
+
+    /**
+     * Returns all words with the same length as the pattern which match the pattern.
+     * Every {@link #WILDCARD} in the pattern matches any character, all other characters must match exactly.
+     */
+    public List<String> getMatchingWords(String pattern) {
+        List<String> matches = new ArrayList<>();
+        collectMatchingWords(ROOT_NODE, pattern, 0, matches);
+        return matches;
+    }
+
+    /**
+     * Returns all words of the given length which have the given letter at the given position.
+     */
+    public List<String> getWordsWithLetterAt(int length, int position, char letter) {
+        if (position < 0 || position >= length) {
+            return Collections.emptyList();
+        }
+
+        char[] pattern = new char[length];
+        Arrays.fill(pattern, WILDCARD);
+        pattern[position] = letter;
+
+        return getMatchingWords(new String(pattern));
+    }
+
+    /**
+     * Returns the ids of all words with the given length in ascending order.
+     * The returned array is shared and must not be modified, the same goes for the other word id indexes. Using any of
+     * the indexes freezes this list.
+     */
+    public int[] getWordIdsWithLength(int length) {
+        int[][] index = getWordIdsByLength();
+        return length >= 0 && length < index.length ? index[length] : EMPTY_IDS;
+    }
+
+    /**
+     * Returns the ids of all words with the given length, first letter and last letter in ascending order.
+     */
+    public int[] getWordIdsWithEnds(int length, char first, char last) {
+        int firstIndex = getLetterIndex(first);
+        int lastIndex = getLetterIndex(last);
+
+        if (length <= 0 || firstIndex == NO_LETTER || lastIndex == NO_LETTER) {
+            return EMPTY_IDS;
+        }
+
+        int[][] index = getWordIdsByLengthAndEnds();
+        int key = getEndsKey(length, firstIndex, lastIndex);
+
+        return key < index.length ? index[key] : EMPTY_IDS;
+    }
+
+    /**
+     * Returns the ids of all words of any length with the given letter at the given position in ascending order.
+     */
+    public int[] getWordIdsWithLetterAt(int position, char letter) {
+        int letterIndex = getLetterIndex(letter);
+        int[][][] index = getWordIdsByPositionAndLetter();
+
+        if (position < 0 || position >= index.length || letterIndex == NO_LETTER || index[position][letterIndex] == null) {
+            return EMPTY_IDS;
+        }
+
+        return index[position][letterIndex];
     }
 
     public int getSize() {
-        return words.size();
+        return size == -1 ? words.size() : size;
+    }
+
+    /**
+     * Returns the index of the given letter in this word list's alphabet, or {@link #NO_LETTER} if no word contains it.
+     * Indices are dense and lower than {@link #MAX_LETTERS}, so sets of letters fit in a single long.
+     */
+    public int getLetterIndex(char ch) {
+        return letterIndices[ch] - 1;
+    }
+
+    public int getRootNode() {
+        return ROOT_NODE;
+    }
+
+    /**
+     * Returns the node reached by following the given character from the given node, or {@link #NO_NODE}.
+     */
+    public int getChildNode(int node, char ch) {
+        return getChild(node, ch);
+    }
+
+    public int getFirstChildNode(int node) {
+        return firstChildren[node];
+    }
+
+    public int getNextSiblingNode(int node) {
+        return nextSiblings[node];
+    }
+
+    public char getNodeCharacter(int node) {
+        return nodeCharacters[node];
+    }
+
+    public boolean isWordNode(int node) {
+        return nodeWords[node] != NO_WORD && nodeDepths[node] <= maxLength;
+    }
+
+    /**
+     * Returns the sum of the letter scores of the path from the root to the given node.
+     * For a word node this is the letter sum of the word, for other nodes it is the letter sum of the prefix.
+     */
+    public int getNodeLetterSum(int node) {
+        return nodeLetterSums[node];
+    }
+
+    public int getNodeWordId(int node) {
+        return nodeDepths[node] <= maxLength ? nodeWords[node] : NO_WORD;
+    }
+
+    /**
+     * Returns the word which ends in the given node, or null if no word ends in it.
+     */
+    public String getNodeWord(int node) {
+        return isWordNode(node) ? words.get(nodeWords[node]) : null;
     }
 
     @Override
     public Iterator<String> iterator() {
-        return words.iterator();
+        if (maxLength == Integer.MAX_VALUE) {
+            return Collections.unmodifiableList(words).iterator();
+        }
+
+        return words.stream().filter(word -> word.length() <= maxLength).iterator();
+    }
+
+    /**
+     * Writes this list in the format read by {@link #fromBinaryFile(Path)}.
+     * The word ids, letter indices and trie layout of the loaded list are the same as those of this list.
+     */
+    public void writeBinary(OutputStream outputStream) throws IOException {
+        if (maxLength != Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cannot write a view of a word list");
+        }
+
+        int wordCharacterCount = 0;
+        for (String word : words) {
+            wordCharacterCount += word.length();
+        }
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(BINARY_VERSION);
+        out.writeInt(nodeCount);
+        out.writeInt(words.size());
+        out.writeInt(letterCount);
+        out.writeInt(wordCharacterCount);
+
+        char[] letters = new char[letterCount];
+        for (int ch = 0; ch <= Character.MAX_VALUE; ch++) {
+            if (letterIndices[ch] != 0) {
+                letters[letterIndices[ch] - 1] = (char) ch;
+            }
+        }
+
+        for (char letter : letters) {
+            out.writeChar(letter);
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            out.writeChar(nodeCharacters[node]);
+        }
+
+        writeInts(out, firstChildren, nodeCount);
+        writeInts(out, nextSiblings, nodeCount);
+        writeInts(out, nodeWords, nodeCount);
+        writeInts(out, nodeDepths, nodeCount);
+
+        int offset = 0;
+        for (String word : words) {
+            out.writeInt(offset);
+            offset += word.length();
+        }
+
+        out.writeInt(offset);
+
+        for (String word : words) {
+            out.writeChars(word);
+        }
+
+        out.flush();
+    }
+
+    private void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    private synchronized int[][] getWordIdsByLength() {
+        if (wordIdsByLength == null) {
+            frozen = true;
+
+            if (indexSource != this) {
+                int[][] sourceIndex = indexSource.getWordIdsByLength();
+                wordIdsByLength = Arrays.copyOf(sourceIndex, Math.min(sourceIndex.length, maxLength + 1));
+                return wordIdsByLength;
+            }
+
+            // Lengths are the depths of the word nodes, so no word has to be decoded
+            wordLengths = new int[words.size()];
+            int longestLength = 0;
+
+            for (int node = 0; node < nodeCount; node++) {
+                if (nodeWords[node] != NO_WORD) {
+                    wordLengths[nodeWords[node]] = nodeDepths[node];
+                    longestLength = Math.max(longestLength, nodeDepths[node]);
+                }
+            }
+
+            int[] counts = new int[longestLength + 1];
+            for (int length : wordLengths) {
+                counts[length]++;
+            }
+
+            int[][] index = createBuckets(counts);
+            int[] filled = new int[counts.length];
+
+            for (int wordId = 0; wordId < wordLengths.length; wordId++) {
+                int length = wordLengths[wordId];
+                index[length][filled[length]++] = wordId;
+            }
+
+            // The empty word has no ends or letters, so it is left out of all indexes
+            index[0] = EMPTY_IDS;
+            wordIdsByLength = index;
+        }
+
+        return wordIdsByLength;
+    }
+
+    private synchronized int[][] getWordIdsByLengthAndEnds() {
+        if (wordIdsByLengthAndEnds == null) {
+            frozen = true;
+
+            int[][] wordIdsByLength = getWordIdsByLength();
+
+            if (indexSource != this) {
+                int[][] sourceIndex = indexSource.getWordIdsByLengthAndEnds();
+                wordIdsByLengthAndEnds = Arrays.copyOf(sourceIndex, Math.min(sourceIndex.length, getEndsKey(wordIdsByLength.length, 0, 0)));
+                return wordIdsByLengthAndEnds;
+            }
+
+            // Parents are always created before their children, so a single pass in node order finds the first letter
+            // of the path to every node
+            int[] firstLetters = new int[nodeCount];
+            int[] wordKeys = new int[words.size()];
+            int[] counts = new int[getEndsKey(wordIdsByLength.length, 0, 0)];
+
+            for (int node = 0; node < nodeCount; node++) {
+                for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                    firstLetters[child] = node == ROOT_NODE ? getLetterIndex(nodeCharacters[child]) : firstLetters[node];
+                }
+
+                if (nodeWords[node] != NO_WORD && nodeDepths[node] > 0) {
+                    int key = getEndsKey(nodeDepths[node], firstLetters[node], getLetterIndex(nodeCharacters[node]));
+                    wordKeys[nodeWords[node]] = key;
+                    counts[key]++;
+                }
+            }
+
+            int[][] index = createBuckets(counts);
+            int[] filled = new int[counts.length];
+
+            for (int wordId = 0; wordId < wordKeys.length; wordId++) {
+                if (wordLengths[wordId] > 0) {
+                    int key = wordKeys[wordId];
+                    index[key][filled[key]++] = wordId;
+                }
+            }
+
+            wordIdsByLengthAndEnds = index;
+        }
+
+        return wordIdsByLengthAndEnds;
+    }
+
+    private synchronized int[][][] getWordIdsByPositionAndLetter() {
+        if (wordIdsByPositionAndLetter == null) {
+            frozen = true;
+
+            int longestLength = getWordIdsByLength().length - 1;
+
+            if (indexSource != this) {
+                wordIdsByPositionAndLetter = filterByLength(indexSource.getWordIdsByPositionAndLetter(), longestLength);
+                return wordIdsByPositionAndLetter;
+            }
+
+            int[] parents = new int[nodeCount];
+            int[] wordNodes = new int[words.size()];
+
+            for (int node = 0; node < nodeCount; node++) {
+                for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                    parents[child] = node;
+                }
+
+                if (nodeWords[node] != NO_WORD) {
+                    wordNodes[nodeWords[node]] = node;
+                }
+            }
+
+            // The letters of a word are read from its node back up to the root
+            int[][] counts = new int[longestLength][letterCount];
+
+            for (int wordId = 0; wordId < wordNodes.length; wordId++) {
+                int node = wordNodes[wordId];
+
+                for (int i = wordLengths[wordId] - 1; i >= 0; i--) {
+                    counts[i][getLetterIndex(nodeCharacters[node])]++;
+                    node = parents[node];
+                }
+            }
+
+            int[][][] index = new int[longestLength][][];
+            int[][] filled = new int[longestLength][letterCount];
+
+            for (int i = 0; i < longestLength; i++) {
+                index[i] = createBuckets(counts[i]);
+            }
+
+            for (int wordId = 0; wordId < wordNodes.length; wordId++) {
+                int node = wordNodes[wordId];
+
+                for (int i = wordLengths[wordId] - 1; i >= 0; i--) {
+                    int letterIndex = getLetterIndex(nodeCharacters[node]);
+                    index[i][letterIndex][filled[i][letterIndex]++] = wordId;
+                    node = parents[node];
+                }
+            }
+
+            wordIdsByPositionAndLetter = index;
+        }
+
+        return wordIdsByPositionAndLetter;
+    }
+
+    /**
+     * Returns the given letter position index of the index source without the words longer than this view.
+     */
+    private int[][][] filterByLength(int[][][] sourceIndex, int longestLength) {
+        int[] sourceWordLengths = indexSource.wordLengths;
+        int[][][] index = new int[Math.min(sourceIndex.length, longestLength)][][];
+
+        for (int i = 0; i < index.length; i++) {
+            index[i] = new int[sourceIndex[i].length][];
+
+            for (int letterIndex = 0; letterIndex < index[i].length; letterIndex++) {
+                int[] sourceIds = sourceIndex[i][letterIndex];
+                int count = 0;
+
+                for (int wordId : sourceIds) {
+                    if (sourceWordLengths[wordId] <= maxLength) {
+                        count++;
+                    }
+                }
+
+                if (count == sourceIds.length) {
+                    index[i][letterIndex] = sourceIds;
+                    continue;
+                }
+
+                int[] ids = count == 0 ? EMPTY_IDS : new int[count];
+                int filled = 0;
+
+                for (int wordId : sourceIds) {
+                    if (sourceWordLengths[wordId] <= maxLength) {
+                        ids[filled++] = wordId;
+                    }
+                }
+
+                index[i][letterIndex] = ids;
+            }
+        }
+
+        return index;
+    }
+
+    private int getEndsKey(int length, int firstIndex, int lastIndex) {
+        return (length * letterCount + firstIndex) * letterCount + lastIndex;
+    }
+
+    private int[][] createBuckets(int[] counts) {
+        int[][] buckets = new int[counts.length][];
+
+        for (int i = 0; i < counts.length; i++) {
+            buckets[i] = counts[i] == 0 ? EMPTY_IDS : new int[counts[i]];
+        }
+
+        return buckets;
+    }
+
+    private int findNode(String str) {
+        int node = ROOT_NODE;
+
+        for (int i = 0; i < str.length() && node != NO_NODE; i++) {
+            node = getChild(node, str.charAt(i));
+        }
+
+        return node;
+    }
+
+    private int getChild(int node, char ch) {
+        for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+            char childCharacter = nodeCharacters[child];
+
+            if (childCharacter == ch) {
+                return child;
+            }
+
+            if (childCharacter > ch) {
+                break;
+            }
+        }
+
+        return NO_NODE;
+    }
+
+    private int getOrCreateChild(int node, char ch) {
+        int previous = NO_NODE;
+        int child = firstChildren[node];
+
+        while (child != NO_NODE && nodeCharacters[child] < ch) {
+            previous = child;
+            child = nextSiblings[child];
+        }
+
+        if (child != NO_NODE && nodeCharacters[child] == ch) {
+            return child;
+        }
+
+        int newChild = createNode(ch, nodeDepths[node] + 1, nodeLetterSums[node] + Board.getLetterScore(ch));
+        nextSiblings[newChild] = child;
+
+        if (previous == NO_NODE) {
+            firstChildren[node] = newChild;
+        } else {
+            nextSiblings[previous] = newChild;
+        }
+
+        return newChild;
+    }
+
+    private int createNode(char ch, int depth, int letterSum) {
+        if (nodeCount == nodeCharacters.length) {
+            int newCapacity = nodeCount * 2;
+
+            nodeCharacters = Arrays.copyOf(nodeCharacters, newCapacity);
+            firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+            nodeWords = Arrays.copyOf(nodeWords, newCapacity);
+            nodeDepths = Arrays.copyOf(nodeDepths, newCapacity);
+            nodeLetterSums = Arrays.copyOf(nodeLetterSums, newCapacity);
+        }
+
+        int node = nodeCount++;
+
+        nodeCharacters[node] = ch;
+        firstChildren[node] = NO_NODE;
+        nextSiblings[node] = NO_NODE;
+        nodeWords[node] = NO_WORD;
+        nodeDepths[node] = depth;
+        nodeLetterSums[node] = letterSum;
+
+        return node;
+    }
+
+    private void collectMatchingWords(int node, String pattern, int index, List<String> matches) {
+        if (index == pattern.length()) {
+            if (isWordNode(node)) {
+                matches.add(words.get(nodeWords[node]));
+            }
+
+            return;
+        }
+
+        char ch = pattern.charAt(index);
+
+        if (ch != WILDCARD) {
+            int child = getChild(node, ch);
+
+            if (child != NO_NODE) {
+                collectMatchingWords(child, pattern, index + 1, matches);
+            }
+
+            return;
+        }
+
+        for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+            collectMatchingWords(child, pattern, index + 1, matches);
+        }
     }
 
     public static WordList fromStream(InputStream inputStream, int maxLength) {
@@ -50,4 +757,94 @@ public class WordList implements Iterable<String> {
     public static WordList fromStream(InputStream inputStream) {
         return fromStream(inputStream, Integer.MAX_VALUE);
     }
+
+    /**
+     * Opens a file written by {@link #writeBinary(OutputStream)}. The returned list is frozen.
+     */
+    public static WordList fromBinaryFile(Path path) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != BINARY_MAGIC || buffer.getInt() != BINARY_VERSION) {
+            throw new IOException(path + " is not a binary word list");
+        }
+
+        int nodeCount = buffer.getInt();
+        int wordCount = buffer.getInt();
+        int letterCount = buffer.getInt();
+        int wordCharacterCount = buffer.getInt();
+
+        char[] letters = new char[letterCount];
+        buffer.asCharBuffer().get(letters);
+        buffer.position(buffer.position() + letterCount * Character.BYTES);
+
+        char[] nodeCharacters = new char[nodeCount];
+        buffer.asCharBuffer().get(nodeCharacters);
+        buffer.position(buffer.position() + nodeCount * Character.BYTES);
+
+        int[] firstChildren = readInts(buffer, nodeCount);
+        int[] nextSiblings = readInts(buffer, nodeCount);
+        int[] nodeWords = readInts(buffer, nodeCount);
+        int[] nodeDepths = readInts(buffer, nodeCount);
+
+        IntBuffer wordOffsets = buffer.slice().asIntBuffer();
+        buffer.position(buffer.position() + (wordCount + 1) * Integer.BYTES);
+
+        CharBuffer wordCharacters = buffer.slice().asCharBuffer();
+        wordCharacters.limit(wordCharacterCount);
+
+        List<String> words = new MappedWords(wordOffsets, wordCharacters, wordCount);
+        return new WordList(nodeCharacters, firstChildren, nextSiblings, nodeWords, nodeDepths, letters, words);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * The words of a binary word list, decoded from the mapped file the first time they are requested.
+     */
+    private static class MappedWords extends AbstractList<String> {
+        private final IntBuffer offsets;
+        private final CharBuffer characters;
+        private final String[] decodedWords;
+
+        private MappedWords(IntBuffer offsets, CharBuffer characters, int wordCount) {
+            this.offsets = offsets;
+            this.characters = characters;
+            decodedWords = new String[wordCount];
+        }
+
+        @Override
+        public String get(int index) {
+            // Racing threads may both decode a word, which is harmless as the results are equal
+            String word = decodedWords[index];
+
+            if (word == null) {
+                int start = offsets.get(index);
+                int end = offsets.get(index + 1);
+
+                char[] chars = new char[end - start];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = characters.get(start + i);
+                }
+
+                word = new String(chars);
+                decodedWords[index] = word;
+            }
+
+            return word;
+        }
+
+        @Override
+        public int size() {
+            return decodedWords.length;
+        }
+    }
 }
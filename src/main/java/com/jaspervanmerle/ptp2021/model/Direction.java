@@ -13,4 +13,14 @@ public enum Direction {
     public char getIdentifier() {
         return identifier;
     }
+
+    public static Direction fromIdentifier(char identifier) {
+        for (Direction direction : values()) {
+            if (direction.identifier == identifier) {
+                return direction;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown direction identifier '" + identifier + "'");
+    }
 }
@@ -35,6 +35,22 @@ public class Move {
         return new Move(startY, startX, newDirection, word);
     }
 
+    /**
+     * Parses a move in the submission format written by {@link #toString()}, which is {@code y,x,direction,word}.
+     */
+    public static Move parse(String str) {
+        String[] parts = str.trim().split(",");
+        if (parts.length != 4 || parts[2].length() != 1 || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Invalid move '" + str + "'");
+        }
+
+        try {
+            return new Move(Integer.parseInt(parts[1]), Integer.parseInt(parts[0]), Direction.fromIdentifier(parts[2].charAt(0)), parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid move '" + str + "'", e);
+        }
+    }
+
     @Override
     public String toString() {
         return startY + "," + startX + "," + direction.getIdentifier() + "," + word;
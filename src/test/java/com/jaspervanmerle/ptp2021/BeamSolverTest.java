@@ -0,0 +1,32 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeamSolverTest {
+    @Test
+    void solveWithWidthOnePlaysSameBoardAsSolver() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 10);
+
+        Board solverBoard = new Board(10, wordList);
+        new Solver(10, solverBoard, wordList).solve();
+
+        Board beamBoard = new BeamSolver(10, new Board(10, wordList), wordList, 1).solve();
+
+        assertEquals(solverBoard.toString(), beamBoard.toString());
+        assertEquals(solverBoard.getScore(), beamBoard.getScore());
+    }
+
+    @Test
+    void solveWithoutNarrowingDeadlineScoresHigherWithWiderBeam() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 10);
+
+        Board narrowBoard = new BeamSolver(10, new Board(10, wordList), wordList, 1).solve();
+        Board wideBoard = new BeamSolver(10, new Board(10, wordList), wordList, 4).solve();
+
+        assertTrue(wideBoard.getScore() > narrowBoard.getScore());
+    }
+}
@@ -0,0 +1,40 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizerTest {
+    @Test
+    void iterateRestoresBoardWhenRejected() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 10);
+        Board board = new Board(10, wordList);
+        new Solver(10, board, wordList).solve();
+
+        Optimizer optimizer = new Optimizer(10, board, wordList, 1, SolverListener.NONE);
+
+        int rejectedCount = 0;
+
+        for (int i = 0; i < 200; i++) {
+            String previousMoves = board.getAppliedMoves().toString();
+            String previousCells = board.toString();
+            int previousScore = board.getScore();
+
+            // Any step which lowers the score is rejected at this temperature
+            if (optimizer.iterate(1e-9)) {
+                assertTrue(board.getScore() >= previousScore);
+                continue;
+            }
+
+            rejectedCount++;
+
+            assertEquals(previousMoves, board.getAppliedMoves().toString());
+            assertEquals(previousCells, board.toString());
+            assertEquals(previousScore, board.getScore());
+        }
+
+        assertTrue(rejectedCount > 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import com.jaspervanmerle.ptp2021.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultsFileTest {
+    @Test
+    void parseReturnsWrittenMovesBoardAndScore() {
+        WordList wordList = createWordList();
+        Board board = solve(wordList);
+
+        ResultsFile results = ResultsFile.parse(getLines(board));
+
+        assertEquals(board.getAppliedMoves().toString(), results.getMoves().toString());
+        assertEquals(board.toString(), results.getBoard());
+        assertEquals(board.getScore(), results.getScore());
+
+        Board replayedBoard = new Board(9, wordList);
+        results.replay(replayedBoard);
+
+        assertEquals(board.toString(), replayedBoard.toString());
+        assertEquals(board.getScore(), replayedBoard.getScore());
+    }
+
+    @Test
+    void parseThrowsIllegalArgumentExceptionWhenMovesAreMissing() {
+        List<String> lines = getLines(solve(createWordList()));
+
+        assertThrows(IllegalArgumentException.class, () -> ResultsFile.parse(lines.subList(0, 5)));
+    }
+
+    @Test
+    void verifyReturnsNoProblemsForWrittenFile() throws IOException {
+        WordList wordList = createWordList();
+        Path file = writeResultsFile(getLines(solve(wordList)));
+
+        try {
+            assertEquals(List.of(), new ResultsVerifier(wordList).verify(file, 9));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void verifyReturnsProblemsForCorruptedMove() throws IOException {
+        WordList wordList = createWordList();
+        List<String> lines = getLines(solve(wordList));
+
+        // Moving the first move one cell to the right leaves the board and score recorded for the original move
+        Move move = Move.parse(lines.get(1));
+        lines.set(1, new Move(move.getStartX() + 1, move.getStartY(), move.getDirection(), move.getWord()).toString());
+
+        Path file = writeResultsFile(lines);
+
+        try {
+            assertFalse(new ResultsVerifier(wordList).verify(file, 9).isEmpty());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private WordList createWordList() {
+        return WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 9);
+    }
+
+    private Board solve(WordList wordList) {
+        Board board = new Board(9, wordList);
+        new Solver(9, board, wordList).solve();
+        return board;
+    }
+
+    /**
+     * Returns the lines of the results file the runner writes for the given board.
+     */
+    private List<String> getLines(Board board) {
+        List<String> lines = new ArrayList<>();
+
+        lines.add("Moves (" + board.getAppliedMoves().size() + "):");
+        for (Move move : board.getAppliedMoves()) {
+            lines.add(move.toString());
+        }
+
+        lines.add("");
+        lines.add("Board:");
+        lines.addAll(List.of(board.toString().split("\n")));
+        lines.add("");
+        lines.add("Score: " + String.format("%,d", board.getScore()));
+
+        return lines;
+    }
+
+    private Path writeResultsFile(List<String> lines) throws IOException {
+        Path file = Files.createTempFile("results", ".txt");
+        Files.write(file, lines);
+        return file;
+    }
+}
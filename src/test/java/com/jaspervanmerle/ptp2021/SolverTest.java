@@ -0,0 +1,98 @@
+package com.jaspervanmerle.ptp2021;
+
+import com.jaspervanmerle.ptp2021.core.Board;
+import com.jaspervanmerle.ptp2021.core.MoveGenerator;
+import com.jaspervanmerle.ptp2021.core.WordList;
+import com.jaspervanmerle.ptp2021.model.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+    @Test
+    void solvePlaysSameMovesInParallel() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 13);
+
+        Board sequentialBoard = new Board(13, wordList);
+        Solver sequentialSolver = new Solver(13, sequentialBoard, wordList);
+        sequentialSolver.solve();
+
+        Board parallelBoard = new Board(13, wordList);
+        Solver parallelSolver = new Solver(13, parallelBoard, wordList);
+        parallelSolver.setParallel(true);
+        parallelSolver.solve();
+
+        assertEquals(sequentialBoard.getAppliedMoves().toString(), parallelBoard.getAppliedMoves().toString());
+        assertEquals(sequentialBoard.getScore(), parallelBoard.getScore());
+        assertEquals(sequentialSolver.getEvaluatedCandidateCount(), parallelSolver.getEvaluatedCandidateCount());
+    }
+
+    @Test
+    void fillGapsPlaysSameMovesAsRecomputingAllStarts() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 11);
+
+        Board board = new Board(11, wordList);
+        Solver solver = new Solver(11, board, wordList);
+        solver.playBestMultiplierMoves();
+
+        Board recomputedBoard = board.copy();
+
+        solver.fillGaps();
+        fillGapsRecomputingAllStarts(recomputedBoard, wordList);
+
+        assertEquals(recomputedBoard.getAppliedMoves().toString(), board.getAppliedMoves().toString());
+        assertEquals(recomputedBoard.getScore(), board.getScore());
+    }
+
+    /**
+     * Plays the best chain over all start cells until none scores like {@link Solver#fillGaps()}, but searches every
+     * start again before every move.
+     */
+    private void fillGapsRecomputingAllStarts(Board board, WordList wordList) {
+        int size = board.getSize();
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<String> words = new ArrayList<>();
+
+        while (true) {
+            int bestScore = 0;
+            int bestX = -1;
+            int bestY = -1;
+            Direction bestDirection = null;
+            String bestWord = null;
+            long bestChainLengths = 0;
+
+            // Same order as the gap indexes of the solver, so ties are broken the same way
+            for (Direction direction : Direction.values()) {
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        if (!Solver.isValidStart(board, x, y)) {
+                            continue;
+                        }
+
+                        generator.generateWords(x, y, direction, words);
+
+                        for (int i = 0; i < words.size(); i++) {
+                            if (generator.getChainScore(i) > bestScore) {
+                                bestScore = generator.getChainScore(i);
+                                bestX = x;
+                                bestY = y;
+                                bestDirection = direction;
+                                bestWord = words.get(i);
+                                bestChainLengths = generator.getChainLengths(i);
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (bestWord == null) {
+                return;
+            }
+
+            Solver.playChain(board, bestX, bestY, bestDirection, bestWord, bestChainLengths);
+        }
+    }
+}
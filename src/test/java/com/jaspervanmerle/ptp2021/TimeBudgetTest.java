@@ -0,0 +1,69 @@
+package com.jaspervanmerle.ptp2021;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBudgetTest {
+    private static final long BUDGET_MS = 1_000_000;
+
+    // Time which may pass between creating the budget and checking a deadline
+    private static final long TOLERANCE_NS = 1_000_000_000L;
+
+    @Test
+    void startSizeGivesShareProportionalToArea() {
+        TimeBudget budget = new TimeBudget(BUDGET_MS, List.of(10, 20), 1);
+
+        long start = System.nanoTime();
+        long deadline = budget.startSize(10);
+
+        assertTimeEquals(BUDGET_MS * 1_000_000L / 5, deadline - start);
+    }
+
+    @Test
+    void startSizeGivesLastSizeRemainingTime() {
+        long start = System.nanoTime();
+        TimeBudget budget = new TimeBudget(BUDGET_MS, List.of(10, 20), 1);
+
+        budget.startSize(10);
+        long deadline = budget.startSize(20);
+
+        assertTimeEquals(BUDGET_MS * 1_000_000L, deadline - start);
+    }
+
+    @Test
+    void startSizeMultipliesShareByConcurrentSizes() {
+        TimeBudget budget = new TimeBudget(BUDGET_MS, List.of(10, 20, 20), 2);
+
+        long start = System.nanoTime();
+        long deadline = budget.startSize(10);
+
+        assertTimeEquals(BUDGET_MS * 1_000_000L * 2 / 9, deadline - start);
+    }
+
+    @Test
+    void startSizeNeverGivesMoreThanRemainingTime() {
+        long start = System.nanoTime();
+        TimeBudget budget = new TimeBudget(BUDGET_MS, List.of(10, 20), 4);
+
+        long deadline = budget.startSize(20);
+
+        assertTimeEquals(BUDGET_MS * 1_000_000L, deadline - start);
+    }
+
+    @Test
+    void startSizeReturnsPassedDeadlineWhenBudgetIsExhausted() throws InterruptedException {
+        TimeBudget budget = new TimeBudget(1, List.of(10, 20), 1);
+
+        Thread.sleep(10);
+
+        assertTrue(budget.startSize(10) <= System.nanoTime());
+        assertTrue(budget.startSize(20) <= System.nanoTime());
+    }
+
+    private void assertTimeEquals(long expectedNs, long actualNs) {
+        assertTrue(Math.abs(expectedNs - actualNs) < TOLERANCE_NS, "Expected about " + expectedNs + " ns but was " + actualNs + " ns");
+    }
+}
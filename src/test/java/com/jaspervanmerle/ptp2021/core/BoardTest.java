@@ -15,7 +15,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class BoardTest {
     @Test
     void getCellReturnsCellSetBySetCell() {
-        Board board = new Board(5, new WordList());
+        Board board = createBoard(5, new WordList());
 
         board.setCell(0, 0, 'A');
 
@@ -24,7 +24,7 @@ public class BoardTest {
 
     @Test
     void getCellReturnsEmptyCellWhenCellNotSet() {
-        Board board = new Board(5, new WordList());
+        Board board = createBoard(5, new WordList());
 
         assertEquals(Board.EMPTY_CELL, board.getCell(0, 0));
     }
@@ -32,14 +32,14 @@ public class BoardTest {
     @ParameterizedTest
     @CsvSource({"-1,0", "0,-1", "5,0", "0,5", "-1,-1", "5,5", "-1,5", "5,-1"})
     void setCellThrowsRuntimeExceptionWhenIndexOutOfBounds(int x, int y) {
-        Board board = new Board(5, new WordList());
+        Board board = createBoard(5, new WordList());
 
         assertThrows(RuntimeException.class, () -> board.setCell(x, y, 'A'));
     }
 
     @Test
     void applyMoveAppliesMovesInOrder() {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         board.applyMove(new Move(2, 4, Direction.Vertical, "pro"));
         board.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
@@ -62,7 +62,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveUpdatesScoreAfterEachMove(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         assertEquals(16, board.getScore());
@@ -86,7 +86,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenMoveCreatesInvalidWord(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -100,7 +100,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenWordWasPlayedBefore(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -115,7 +115,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenWordIsPartOfLongerWord(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -126,7 +126,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenWordOverlapsDifferentCharacters(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
 
@@ -136,7 +136,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenMoveGeneratesSameWordTwice(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(0, 0, Direction.Vertical, "ijs"), transpose);
 
@@ -146,7 +146,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenMoveDoesNotFit(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         assertThrows(RuntimeException.class, () -> applyMove(board, new Move(15, 15, Direction.Vertical, "ijs"), transpose));
     }
@@ -154,7 +154,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void applyMoveThrowsRuntimeExceptionWhenWordIsOneCharacter(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         assertThrows(RuntimeException.class, () -> applyMove(board, new Move(0, 0, Direction.Horizontal, "a"), transpose));
     }
@@ -162,7 +162,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsScoreOfNewWordsOnly(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         Move currentMove = new Move(2, 4, Direction.Vertical, "pro");
         assertEquals(16, getMoveScore(board, currentMove, transpose));
@@ -191,7 +191,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsScoreOfMoveWithoutApplyingIt(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -209,7 +209,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreOnlyAppliesMultipliersToNewTiles(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         Move currentMove = new Move(0, 0, Direction.Horizontal, "tr");
         assertEquals(48, getMoveScore(board, currentMove, transpose));
@@ -222,7 +222,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenMoveCreatesInvalidWord(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -238,7 +238,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenWordWasPlayedBefore(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -255,7 +255,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenWordIsPartOfLongerWord(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
         applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
@@ -268,7 +268,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenWordOverlapsDifferentCharacters(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
 
@@ -280,7 +280,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenMoveGeneratesSameWordTwice(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         applyMove(board, new Move(0, 0, Direction.Vertical, "ijs"), transpose);
 
@@ -292,7 +292,7 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenMoveDoesNotFit(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         int moveScore = getMoveScore(board, new Move(15, 15, Direction.Vertical, "ijs"), transpose);
 
@@ -302,16 +302,284 @@ public class BoardTest {
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void getMoveScoreReturnsInvalidMoveWhenWordIsOneCharacter(boolean transpose) {
-        Board board = new Board(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
 
         int moveScore = getMoveScore(board, new Move(0, 0, Direction.Horizontal, "a"), transpose);
 
         assertEquals(Board.INVALID_MOVE, moveScore);
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getMoveScoreOfCharacterSliceEqualsScoreOfMove(boolean transpose) {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
+        applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
+        applyMove(board, new Move(0, 11, Direction.Horizontal, "awesome"), transpose);
+        applyMove(board, new Move(6, 6, Direction.Vertical, "online"), transpose);
+        applyMove(board, new Move(4, 7, Direction.Horizontal, "contest"), transpose);
+
+        Move move = new Move(5, 10, Direction.Vertical, "amazing");
+        if (transpose) {
+            move = move.transpose();
+        }
+
+        char[] characters = "xxamazingxx".toCharArray();
+        int moveScore = board.getMoveScore(move.getStartX(), move.getStartY(), move.getDirection(), characters, 2, 7);
+
+        assertEquals(225, moveScore);
+        assertEquals(Board.INVALID_MOVE, board.getMoveScore(move.getStartX(), move.getStartY(), move.getDirection(), characters, 2, 6));
+    }
+
+    @Test
+    void getCrossCheckMaskReturnsAllLettersWhenCellHasNoPerpendicularNeighbours() {
+        WordList wordList = createWordList("ab", "ac", "bc");
+        Board board = createBoard(5, wordList);
+
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "ab"));
+
+        assertEquals(Board.ALL_LETTERS, board.getCrossCheckMask(0, 1, Direction.Vertical));
+        assertEquals(Board.ALL_LETTERS, board.getCrossCheckMask(3, 3, Direction.Horizontal));
+    }
+
+    @Test
+    void getCrossCheckMaskReturnsLettersFormingPerpendicularWords() {
+        WordList wordList = createWordList("ab", "ac", "bc");
+        Board board = createBoard(5, wordList);
+
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "ab"));
+
+        long expected = (1L << wordList.getLetterIndex('b')) | (1L << wordList.getLetterIndex('c'));
+        assertEquals(expected, board.getCrossCheckMask(0, 1, Direction.Horizontal));
+        assertEquals(1L << wordList.getLetterIndex('c'), board.getCrossCheckMask(1, 1, Direction.Horizontal));
+        assertEquals(0L, board.getCrossCheckMask(2, 0, Direction.Vertical));
+    }
+
+    @Test
+    void getCrossCheckMaskIsUpdatedBySetCell() {
+        WordList wordList = createWordList("ab", "ac", "bc");
+        Board board = createBoard(5, wordList);
+
+        board.setCell(0, 0, 'a');
+        long expected = (1L << wordList.getLetterIndex('b')) | (1L << wordList.getLetterIndex('c'));
+        assertEquals(expected, board.getCrossCheckMask(0, 1, Direction.Horizontal));
+
+        board.setCell(0, 0, Board.EMPTY_CELL);
+        assertEquals(Board.ALL_LETTERS, board.getCrossCheckMask(0, 1, Direction.Horizontal));
+    }
+
+    @Test
+    void copyReturnsBoardWithSameState() {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        board.applyMove(new Move(2, 4, Direction.Vertical, "pro"));
+        board.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
+
+        Board copy = board.copy();
+
+        assertEquals(board.toString(), copy.toString());
+        assertEquals(board.getScore(), copy.getScore());
+        assertEquals(board.getAppliedMoves().size(), copy.getAppliedMoves().size());
+        assertEquals(Board.INVALID_MOVE, copy.getMoveScore(new Move(2, 4, Direction.Vertical, "prodrive")));
+        assertEquals(board.getMoveScore(new Move(5, 10, Direction.Vertical, "amazing")), copy.getMoveScore(new Move(5, 10, Direction.Vertical, "amazing")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,2,H,a,TooShort",
+            "5,2,H,ab,OutOfBounds",
+            "2,0,H,ba,Adjacency",
+            "0,0,V,ba,ConflictingCell",
+            "0,3,H,zz,NotInDictionary",
+            "0,1,H,ab,InvalidCrossWord",
+            "0,3,H,ab,DuplicateWord"
+    })
+    void getMoveScoreRecordsInvalidMoveReason(int x, int y, char direction, String word, InvalidMoveReason reason) {
+        Board board = createBoard(6, createWordList("ab", "ba", "abc"));
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "ab"));
+
+        Metrics metrics = new Metrics(6);
+        board.setMetrics(metrics);
+
+        Move move = new Move(x, y, direction == 'H' ? Direction.Horizontal : Direction.Vertical, word);
+        assertEquals(Board.INVALID_MOVE, board.getMoveScore(move));
+
+        for (InvalidMoveReason otherReason : InvalidMoveReason.values()) {
+            assertEquals(otherReason == reason ? 1 : 0, metrics.getInvalidMoveCount(otherReason), otherReason.name());
+        }
+
+        assertEquals(0, metrics.getValidMoveCount());
+    }
+
+    @Test
+    void getMoveScoreRecordsValidMovesAndCrossWordChecks() {
+        Board board = createBoard(6, createWordList("ab", "abc", "ca"));
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "ab"));
+
+        Metrics metrics = new Metrics(6);
+        board.setMetrics(metrics);
+
+        // Copies record into the same metrics
+        assertEquals(5, board.copy().getMoveScore(new Move(2, 0, Direction.Vertical, "ca")));
+
+        assertEquals(1, metrics.getValidMoveCount());
+        assertEquals(1, metrics.getCrossWordCheckCount());
+    }
+
+    @Test
+    void getCrossCheckMaskOfTransposedBoardIsTransposed() {
+        WordList wordList = createWordList("ab", "ba", "abc");
+        Board board = createBoard(6, wordList);
+        Board transposedBoard = createBoard(6, wordList);
+
+        Move move = new Move(1, 2, Direction.Horizontal, "abc");
+        board.applyMove(move);
+        transposedBoard.applyMove(move.transpose());
+
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 6; x++) {
+                for (Direction direction : Direction.values()) {
+                    Direction transposedDirection = direction == Direction.Horizontal ? Direction.Vertical : Direction.Horizontal;
+                    assertEquals(board.getCrossCheckMask(x, y, direction), transposedBoard.getCrossCheckMask(y, x, transposedDirection));
+                }
+            }
+        }
+    }
+
+    @Test
+    void copyKeepsRepresentation() {
+        Board board = createBoard(5, new WordList());
+
+        assertEquals(getRepresentation(), board.getRepresentation());
+        assertEquals(getRepresentation(), board.copy().getRepresentation());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 2, true",
+            "1, 2, true",
+            "3, 2, true",
+            "2, 1, true",
+            "2, 3, true",
+            "1, 1, false",
+            "0, 2, false",
+            "4, 2, false"
+    })
+    void isNearFilledCellReturnsWhetherCellOrNeighborIsFilled(int x, int y, boolean expected) {
+        Board board = createBoard(5, new WordList());
+
+        board.setCell(2, 2, 'a');
+
+        assertEquals(expected, board.isNearFilledCell(x, y));
+    }
+
+    @Test
+    void isNearFilledCellChecksBoardEdges() {
+        Board board = createBoard(5, new WordList());
+
+        board.setCell(4, 4, 'a');
+
+        assertTrue(board.isNearFilledCell(4, 3));
+        assertTrue(board.isNearFilledCell(3, 4));
+        assertFalse(board.isNearFilledCell(0, 4));
+        assertFalse(board.isNearFilledCell(4, 0));
+        assertFalse(board.isNearFilledCell(0, 0));
+    }
+
+    @Test
+    void copyReturnsIndependentBoard() {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        board.applyMove(new Move(2, 4, Direction.Vertical, "pro"));
+
+        Board copy = board.copy();
+        copy.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
+
+        assertEquals(16, board.getScore());
+        assertEquals(1, board.getAppliedMoves().size());
+        assertEquals(Board.EMPTY_CELL, board.getCell(2, 7));
+        assertEquals(39, board.getMoveScore(new Move(2, 4, Direction.Vertical, "prodrive")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void undoMoveRestoresStateBeforeLastMove(boolean transpose) {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
+        applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
+        applyMove(board, new Move(0, 11, Direction.Horizontal, "awesome"), transpose);
+        applyMove(board, new Move(6, 6, Direction.Vertical, "online"), transpose);
+        applyMove(board, new Move(4, 7, Direction.Horizontal, "contest"), transpose);
+
+        String expectedBoard = board.toString();
+
+        applyMove(board, new Move(5, 10, Direction.Vertical, "amazing"), transpose);
+        board.undoMove();
+
+        assertEquals(expectedBoard, board.toString());
+        assertEquals(141, board.getScore());
+        assertEquals(5, board.getAppliedMoves().size());
+        assertEquals(225, getMoveScore(board, new Move(5, 10, Direction.Vertical, "amazing"), transpose));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void undoMoveAllowsPlayingRemovedWordsAgain(boolean transpose) {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
+        board.undoMove();
+
+        assertEquals(0, board.getScore());
+        assertEquals(Board.EMPTY_CELL, board.getCell(2, 4));
+        assertEquals(16, getMoveScore(board, new Move(2, 4, Direction.Vertical, "pro"), transpose));
+    }
+
+    @Test
+    void undoMoveThrowsIllegalStateExceptionWhenNoMovesWereApplied() {
+        Board board = createBoard(5, new WordList());
+
+        assertThrows(IllegalStateException.class, board::undoMove);
+    }
+
+    @Test
+    void redoMoveReappliesUndoneMove() {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        board.applyMove(new Move(2, 4, Direction.Vertical, "pro"));
+        board.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
+        board.undoMove();
+        board.redoMove();
+
+        assertEquals(55, board.getScore());
+        assertEquals("4,2,V,prodrive", board.getAppliedMoves().get(1).toString());
+        assertThrows(IllegalStateException.class, board::redoMove);
+    }
+
+    @Test
+    void rollbackUndoesMovesAppliedAfterCheckpoint() {
+        Board board = createBoard(17, WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt")));
+
+        board.applyMove(new Move(2, 4, Direction.Vertical, "pro"));
+        board.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
+
+        int checkpoint = board.checkpoint();
+        String expectedBoard = board.toString();
+
+        board.applyMove(new Move(0, 11, Direction.Horizontal, "awesome"));
+        board.applyMove(new Move(6, 6, Direction.Vertical, "online"));
+        board.rollback(checkpoint);
+
+        assertEquals(expectedBoard, board.toString());
+        assertEquals(55, board.getScore());
+        assertEquals(2, board.getAppliedMoves().size());
+    }
+
     @Test
     void toStringReturnsReadableBoard() {
-        Board board = new Board(6, new WordList());
+        Board board = createBoard(6, new WordList());
 
         board.setCell(0, 0, 'a');
         board.setCell(1, 1, 'b');
@@ -332,6 +600,24 @@ public class BoardTest {
         assertEquals(String.join("\n", lines), board.toString());
     }
 
+    CellRepresentation getRepresentation() {
+        return CellRepresentation.CharArray;
+    }
+
+    private Board createBoard(int size, WordList wordList) {
+        return new Board(size, wordList, getRepresentation());
+    }
+
+    private WordList createWordList(String... words) {
+        WordList wordList = new WordList();
+
+        for (String word : words) {
+            wordList.addWord(word);
+        }
+
+        return wordList;
+    }
+
     private void applyMove(Board board, Move move, boolean transpose) {
         if (transpose) {
             move = move.transpose();
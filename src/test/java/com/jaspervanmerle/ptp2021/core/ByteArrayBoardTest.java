@@ -0,0 +1,11 @@
+package com.jaspervanmerle.ptp2021.core;
+
+/**
+ * Runs all {@link BoardTest} cases against a board storing its cells in a byte array.
+ */
+public class ByteArrayBoardTest extends BoardTest {
+    @Override
+    CellRepresentation getRepresentation() {
+        return CellRepresentation.ByteArray;
+    }
+}
@@ -0,0 +1,82 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    @Test
+    void addPhaseTimeAccumulatesPerPhaseInOrder() {
+        Metrics metrics = new Metrics(6);
+
+        metrics.addPhaseTime("b", 1_000_000);
+        metrics.addPhaseTime("a", 2_000_000);
+        metrics.addPhaseTime("b", 500_000);
+
+        Map<String, Double> phaseTimes = metrics.getPhaseTimesMs();
+
+        assertArrayEquals(new String[]{"b", "a"}, phaseTimes.keySet().toArray());
+        assertEquals(1.5, (double) phaseTimes.get("b"));
+        assertEquals(2.0, (double) phaseTimes.get("a"));
+    }
+
+    @Test
+    void getInvalidMoveCountsContainsEveryReason() {
+        Metrics metrics = new Metrics(6);
+
+        metrics.recordInvalidMove(InvalidMoveReason.Adjacency);
+        metrics.recordInvalidMove(InvalidMoveReason.Adjacency);
+
+        Map<String, Long> counts = metrics.getInvalidMoveCounts();
+
+        assertEquals(InvalidMoveReason.values().length, counts.size());
+        assertEquals(2, (long) counts.get("Adjacency"));
+        assertEquals(0, (long) counts.get("DuplicateWord"));
+    }
+
+    @Test
+    void toJsonReturnsAllCounters() {
+        Metrics metrics = new Metrics(6);
+
+        metrics.addCandidates(10);
+        metrics.addGeneratorPrunes(5, 2);
+        metrics.recordValidMove();
+        metrics.recordInvalidMove(InvalidMoveReason.NotInDictionary);
+        metrics.recordCrossWordCheck();
+        metrics.addPhaseTime("rowScan", 1_234_567);
+
+        String expected = "{\n" +
+                "  \"size\": 6,\n" +
+                "  \"candidates\": {\n" +
+                "    \"evaluated\": 10,\n" +
+                "    \"prunedLetters\": 5,\n" +
+                "    \"prunedDuplicatePaths\": 2\n" +
+                "  },\n" +
+                "  \"moves\": {\n" +
+                "    \"valid\": 1,\n" +
+                "    \"invalid\": {\n" +
+                "      \"TooShort\": 0,\n" +
+                "      \"OutOfBounds\": 0,\n" +
+                "      \"Adjacency\": 0,\n" +
+                "      \"ConflictingCell\": 0,\n" +
+                "      \"NotInDictionary\": 1,\n" +
+                "      \"InvalidCrossWord\": 0,\n" +
+                "      \"DuplicateWord\": 0\n" +
+                "    }\n" +
+                "  },\n" +
+                "  \"crossWordsChecked\": 1,\n" +
+                "  \"phaseTimesMs\": {\n" +
+                "    \"rowScan\": 1.235\n" +
+                "  }\n" +
+                "}\n";
+
+        assertEquals(expected, metrics.toJson());
+    }
+
+    @Test
+    void toJsonReturnsEmptyObjectWithoutPhases() {
+        assertTrue(new Metrics(6).toJson().contains("\"phaseTimesMs\": {}\n"));
+    }
+}
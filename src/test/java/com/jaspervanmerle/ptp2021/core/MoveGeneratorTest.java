@@ -0,0 +1,330 @@
+package com.jaspervanmerle.ptp2021.core;
+
+import com.jaspervanmerle.ptp2021.model.Direction;
+import com.jaspervanmerle.ptp2021.model.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+    @Test
+    void generateWordsReturnsWordsFittingFromStartCell() {
+        WordList wordList = createWordList("a", "ab", "abc", "abcdefg", "ba");
+        Board board = new Board(5, wordList);
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        assertEquals(List.of("ab", "abc", "ba"), generator.generateWords(0, 0, Direction.Horizontal));
+        assertEquals(List.of("ab", "ba"), generator.generateWords(3, 0, Direction.Horizontal));
+        assertEquals(List.of(), generator.generateWords(4, 0, Direction.Horizontal));
+    }
+
+    @Test
+    void generateWordsFollowsLettersOnBoard() {
+        WordList wordList = createWordList("ab", "abc", "cab", "cb");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(1, 0, Direction.Horizontal, "ab"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        assertEquals(List.of("cab"), generator.generateWords(0, 0, Direction.Horizontal));
+        assertEquals(List.of(), generator.generateWords(2, 0, Direction.Horizontal));
+        // "ab" itself is already played
+        assertEquals(List.of("abc"), generator.generateWords(1, 0, Direction.Horizontal));
+    }
+
+    @Test
+    void generateWordsRespectsCrossChecks() {
+        WordList wordList = createWordList("ab", "ac", "cb", "bb", "abc", "acb");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(1, 0, Direction.Vertical, "ab"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        // "ab" would be played a second time
+        assertEquals(List.of("abc", "bb", "cb"), generator.generateWords(0, 1, Direction.Horizontal));
+        assertEquals(List.of("ac", "acb"), generator.generateWords(0, 2, Direction.Horizontal));
+    }
+
+    @Test
+    void generateWordsSkipsLettersFormingPlayedCrossWords() {
+        WordList wordList = createWordList("ab", "abc", "ca", "cb");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(1, 0, Direction.Vertical, "ab"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        assertEquals(List.of("ca", "cb"), generator.generateWords(1, 2, Direction.Horizontal));
+
+        board.applyMove(new Move(0, 4, Direction.Horizontal, "abc"));
+
+        assertEquals(List.of(), generator.generateWords(1, 2, Direction.Horizontal));
+    }
+
+    @Test
+    void generateWordsRecordsPrunedLettersInMetrics() {
+        WordList wordList = createWordList("ab", "ac", "cb", "bb", "abc", "acb");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(1, 0, Direction.Vertical, "ab"));
+
+        Metrics metrics = new Metrics(5);
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        generator.setMetrics(metrics);
+
+        // Only "c" can be placed below "ab", which rules out the "b" after every first letter
+        assertEquals(List.of("ac", "acb"), generator.generateWords(0, 2, Direction.Horizontal));
+        assertEquals(3, metrics.getPrunedLetterCount());
+        assertEquals(0, metrics.getPrunedDuplicatePathCount());
+    }
+
+    @Test
+    void generateWordsRecordsPrunedDuplicatePathsInMetrics() {
+        WordList wordList = createWordList("aa", "ab", "bb");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "aa"));
+
+        Metrics metrics = new Metrics(5);
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        generator.setMetrics(metrics);
+
+        // "a" would form the played "aa", and "bb" would form "ab" twice
+        assertEquals(List.of(), generator.generateWords(0, 1, Direction.Horizontal));
+        assertEquals(1, metrics.getPrunedLetterCount());
+        assertEquals(1, metrics.getPrunedDuplicatePathCount());
+    }
+
+    @Test
+    void getWordIdReturnsIdsOfGeneratedWords() {
+        WordList wordList = createWordList("ba", "abc", "ab");
+        Board board = new Board(5, wordList);
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<String> words = generator.generateWords(0, 0, Direction.Horizontal);
+
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(wordList.getWordId(words.get(i)), generator.getWordId(i));
+        }
+    }
+
+    @Test
+    void getChainScoreReturnsScoreOfPlayingChain() {
+        WordList wordList = createWordList("th", "thi", "thir", "thirst", "hi");
+        Board board = new Board(7, wordList);
+
+        // Without multiplier cells every prefix adds to the score
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<String> words = generator.generateWords(1, 1, Direction.Horizontal);
+        int index = words.indexOf("thirst");
+
+        assertEquals((1L << 2) | (1L << 3) | (1L << 4) | (1L << 6), generator.getChainLengths(index));
+
+        int expectedScore = 0;
+        for (String prefix : List.of("th", "thi", "thir", "thirst")) {
+            Move move = new Move(1, 1, Direction.Horizontal, prefix);
+            expectedScore += board.getMoveScore(move);
+            board.applyMove(move);
+        }
+
+        assertEquals(expectedScore, generator.getChainScore(index));
+    }
+
+    @Test
+    void getChainLengthsSkipsPrefixesWhichAreNotPlayable() {
+        WordList wordList = createWordList("ab", "abc", "abcd");
+        Board board = new Board(5, wordList);
+        board.applyMove(new Move(1, 0, Direction.Horizontal, "ab"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<String> words = generator.generateWords(1, 0, Direction.Horizontal);
+
+        // "ab" is already played, so the chain of "abcd" can only extend "abc"
+        assertEquals(List.of("abc", "abcd"), words);
+        assertEquals((1L << 3) | (1L << 4), generator.getChainLengths(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void generateWordsReturnsSameValidMovesAsFullDictionaryScan(boolean transpose) {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 17);
+        Board board = new Board(17, wordList);
+
+        applyMove(board, new Move(2, 4, Direction.Vertical, "pro"), transpose);
+        applyMove(board, new Move(2, 4, Direction.Vertical, "prodrive"), transpose);
+        applyMove(board, new Move(0, 11, Direction.Horizontal, "awesome"), transpose);
+        applyMove(board, new Move(6, 6, Direction.Vertical, "online"), transpose);
+        applyMove(board, new Move(4, 7, Direction.Horizontal, "contest"), transpose);
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        // Starts in front of, on and next to the played words, and one on an empty part of the board
+        int[][] starts = {{2, 3}, {0, 10}, {4, 6}, {5, 7}, {6, 5}, {12, 2}};
+
+        for (int[] start : starts) {
+            int x = transpose ? start[1] : start[0];
+            int y = transpose ? start[0] : start[1];
+
+            for (Direction direction : Direction.values()) {
+                Set<String> expected = new TreeSet<>();
+                for (String word : wordList) {
+                    if (board.getMoveScore(new Move(x, y, direction, word)) != Board.INVALID_MOVE) {
+                        expected.add(word);
+                    }
+                }
+
+                assertEquals(expected, new TreeSet<>(generator.generateWords(x, y, direction)));
+            }
+        }
+    }
+
+    @Test
+    void getChainScoreMatchesReplayingChainsOnFullDictionary() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 17);
+        Board board = new Board(17, wordList);
+
+        board.applyMove(new Move(2, 4, Direction.Vertical, "prodrive"));
+        board.applyMove(new Move(0, 11, Direction.Horizontal, "awesome"));
+        board.applyMove(new Move(4, 7, Direction.Horizontal, "contest"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        // Starts in front of, on and next to the played words
+        int[][] starts = {{2, 3}, {1, 5}, {0, 10}, {3, 12}, {4, 6}, {8, 7}};
+
+        for (int[] start : starts) {
+            int x = start[0];
+            int y = start[1];
+
+            for (Direction direction : Direction.values()) {
+                List<String> words = generator.generateWords(x, y, direction);
+
+                for (int i = 0; i < words.size(); i += getSampleStep(words)) {
+                    int checkpoint = board.checkpoint();
+                    int score = board.getScore();
+
+                    long chainLengths = generator.getChainLengths(i);
+                    for (int length = 1; length <= words.get(i).length(); length++) {
+                        if ((chainLengths & (1L << length)) != 0) {
+                            board.applyMove(new Move(x, y, direction, words.get(i).substring(0, length)));
+                        }
+                    }
+
+                    assertEquals(board.getScore() - score, generator.getChainScore(i), words.get(i));
+                    board.rollback(checkpoint);
+                }
+            }
+        }
+    }
+
+    @Test
+    void getChainScoreSkipsOnlyPrefixesFormedAgainAsPerpendicularWord() {
+        WordList wordList = createWordList("xs", "xt", "sa", "saa", "saat", "saata");
+        Board board = new Board(7, wordList);
+        board.applyMove(new Move(5, 0, Direction.Horizontal, "xs"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+        List<String> words = generator.generateWords(2, 1, Direction.Horizontal);
+        int index = words.indexOf("saata");
+
+        // "sa" is formed again below the "s" by the last letter, the rest of the chain can still be played
+        assertEquals((1L << 3) | (1L << 4) | (1L << 5), generator.getChainLengths(index));
+        assertEquals(getBestChainScore(board, wordList, 2, 1, Direction.Horizontal, "saata"), generator.getChainScore(index));
+    }
+
+    @Test
+    void getChainScoreReturnsBestScoreOfAllPrefixChains() {
+        WordList wordList = WordList.fromStream(getClass().getResourceAsStream("/wordlist-full.txt"), 9);
+        Board board = new Board(9, wordList);
+
+        board.applyMove(new Move(0, 0, Direction.Horizontal, "pro"));
+        board.applyMove(new Move(2, 0, Direction.Vertical, "online"));
+        board.applyMove(new Move(0, 5, Direction.Horizontal, "awesome"));
+
+        MoveGenerator generator = new MoveGenerator(board, wordList);
+
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 9; x++) {
+                for (Direction direction : Direction.values()) {
+                    List<String> words = generator.generateWords(x, y, direction);
+
+                    for (int i = 0; i < words.size(); i += getSampleStep(words)) {
+                        assertEquals(getBestChainScore(board, wordList, x, y, direction, words.get(i)), generator.getChainScore(i), words.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the step which checks about 100 of the given generated words, checking every word generated at an open
+     * start cell from the full dictionary takes minutes.
+     */
+    private int getSampleStep(List<String> words) {
+        return Math.max(1, words.size() / 100);
+    }
+
+    /**
+     * Returns the highest score of playing the given word after any subset of its prefixes, found by playing them all.
+     */
+    private int getBestChainScore(Board board, WordList wordList, int x, int y, Direction direction, String word) {
+        int[] prefixLengths = new int[word.length()];
+        int prefixCount = 0;
+
+        for (int length = 2; length < word.length(); length++) {
+            if (wordList.getWordId(word.substring(0, length)) != WordList.NO_WORD) {
+                prefixLengths[prefixCount++] = length;
+            }
+        }
+
+        int bestScore = Board.INVALID_MOVE;
+
+        for (int subset = 0; subset < 1 << prefixCount; subset++) {
+            int checkpoint = board.checkpoint();
+            int score = 0;
+
+            for (int i = 0; i <= prefixCount && score != Board.INVALID_MOVE; i++) {
+                if (i < prefixCount && (subset & (1 << i)) == 0) {
+                    continue;
+                }
+
+                Move move = new Move(x, y, direction, i < prefixCount ? word.substring(0, prefixLengths[i]) : word);
+                int moveScore = board.getMoveScore(move);
+
+                if (moveScore == Board.INVALID_MOVE) {
+                    score = Board.INVALID_MOVE;
+                } else {
+                    score += moveScore;
+                    board.applyMove(move);
+                }
+            }
+
+            board.rollback(checkpoint);
+            bestScore = Math.max(bestScore, score);
+        }
+
+        return bestScore;
+    }
+
+    private WordList createWordList(String... words) {
+        WordList wordList = new WordList();
+
+        for (String word : words) {
+            wordList.addWord(word);
+        }
+
+        return wordList;
+    }
+
+    private void applyMove(Board board, Move move, boolean transpose) {
+        if (transpose) {
+            move = move.transpose();
+        }
+
+        board.applyMove(move);
+    }
+}
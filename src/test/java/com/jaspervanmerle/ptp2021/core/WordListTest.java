@@ -2,7 +2,11 @@ package com.jaspervanmerle.ptp2021.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -62,6 +66,267 @@ class WordListTest {
         assertTrue(words.contains("word3"));
     }
 
+    @Test
+    void addWordIgnoresDuplicateWords() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word1");
+        wordList.addWord("word1");
+
+        assertEquals(1, wordList.getSize());
+    }
+
+    @Test
+    void containsReturnsFalseWhenOnlyPrefixIsInList() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("words");
+
+        assertFalse(wordList.contains("word"));
+    }
+
+    @Test
+    void containsPrefixReturnsTrueWhenWordStartsWithPrefix() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("words");
+
+        assertTrue(wordList.containsPrefix(""));
+        assertTrue(wordList.containsPrefix("wo"));
+        assertTrue(wordList.containsPrefix("words"));
+    }
+
+    @Test
+    void containsPrefixReturnsFalseWhenNoWordStartsWithPrefix() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("words");
+
+        assertFalse(wordList.containsPrefix("wa"));
+        assertFalse(wordList.containsPrefix("wordss"));
+    }
+
+    @Test
+    void getMatchingWordsReturnsWordsMatchingPattern() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("cat");
+        wordList.addWord("cot");
+        wordList.addWord("cog");
+        wordList.addWord("coat");
+        wordList.addWord("bat");
+
+        assertEquals(List.of("cat", "cot"), wordList.getMatchingWords("c?t"));
+        assertEquals(List.of("bat", "cat", "cog", "cot"), wordList.getMatchingWords("???"));
+        assertEquals(List.of(), wordList.getMatchingWords("?"));
+    }
+
+    @Test
+    void getWordsWithLetterAtReturnsWordsWithAnchoredLetter() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("cat");
+        wordList.addWord("cot");
+        wordList.addWord("cog");
+        wordList.addWord("coat");
+
+        assertEquals(List.of("cog", "cot"), wordList.getWordsWithLetterAt(3, 1, 'o'));
+        assertEquals(List.of("coat"), wordList.getWordsWithLetterAt(4, 3, 't'));
+        assertEquals(List.of(), wordList.getWordsWithLetterAt(3, 3, 't'));
+    }
+
+    @Test
+    void iteratorReturnsWordsInInsertionOrder() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word3");
+        wordList.addWord("word1");
+        wordList.addWord("word2");
+
+        List<String> words = new ArrayList<>();
+
+        for (String word : wordList) {
+            words.add(word);
+        }
+
+        assertEquals(List.of("word3", "word1", "word2"), words);
+    }
+
+    @Test
+    void getWordIdReturnsIdsInInsertionOrder() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word1");
+        wordList.addWord("word2");
+
+        assertEquals(0, wordList.getWordId("word1"));
+        assertEquals(1, wordList.getWordId("word2"));
+        assertEquals(1, wordList.getWordId("xword2x".toCharArray(), 1, 5));
+        assertEquals("word2", wordList.getWord(1));
+    }
+
+    @Test
+    void getWordIdReturnsNoWordWhenWordIsNotInList() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word1");
+
+        assertEquals(WordList.NO_WORD, wordList.getWordId("word"));
+        assertEquals(WordList.NO_WORD, wordList.getWordId("word2"));
+    }
+
+    @Test
+    void withMaxLengthReturnsViewWithoutLongerWords() {
+        InputStream inputStream = getClass().getResourceAsStream("/wordlist-small.txt");
+
+        WordList wordList = WordList.fromStream(inputStream).withMaxLength(3);
+
+        List<String> words = new ArrayList<>();
+        for (String word : wordList) {
+            words.add(word);
+        }
+
+        assertEquals(3, wordList.getSize());
+        assertEquals(List.of("w", "wo", "wor"), words);
+        assertTrue(wordList.contains("wor"));
+        assertFalse(wordList.contains("word"));
+        assertEquals(WordList.NO_WORD, wordList.getWordId("words"));
+        assertTrue(wordList.containsPrefix("words"));
+        assertEquals(List.of(), wordList.getMatchingWords("w???"));
+    }
+
+    @Test
+    void withMaxLengthDoesNotModifyOriginalList() {
+        InputStream inputStream = getClass().getResourceAsStream("/wordlist-small.txt");
+
+        WordList wordList = WordList.fromStream(inputStream);
+        wordList.withMaxLength(3);
+
+        assertEquals(5, wordList.getSize());
+        assertTrue(wordList.contains("words"));
+    }
+
+    @Test
+    void addWordThrowsIllegalStateExceptionWhenListIsFrozen() {
+        WordList wordList = new WordList();
+        wordList.addWord("word1");
+
+        WordList view = wordList.withMaxLength(5);
+
+        assertThrows(IllegalStateException.class, () -> wordList.addWord("word2"));
+        assertThrows(IllegalStateException.class, () -> view.addWord("word2"));
+    }
+
+    @Test
+    void getWordIdsWithLengthReturnsIdsOfWordsWithLength() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("ab");
+        wordList.addWord("bcd");
+        wordList.addWord("abcd");
+
+        assertArrayEquals(new int[]{0, 2}, wordList.getWordIdsWithLength(3));
+        assertArrayEquals(new int[]{3}, wordList.getWordIdsWithLength(4));
+        assertArrayEquals(new int[0], wordList.getWordIdsWithLength(5));
+    }
+
+    @Test
+    void getWordIdsWithEndsReturnsIdsOfWordsWithLengthAndEnds() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("adc");
+        wordList.addWord("abd");
+        wordList.addWord("abbc");
+        wordList.addWord("bbc");
+
+        assertArrayEquals(new int[]{0, 1}, wordList.getWordIdsWithEnds(3, 'a', 'c'));
+        assertArrayEquals(new int[]{3}, wordList.getWordIdsWithEnds(4, 'a', 'c'));
+        assertArrayEquals(new int[0], wordList.getWordIdsWithEnds(3, 'c', 'a'));
+        assertArrayEquals(new int[0], wordList.getWordIdsWithEnds(3, 'a', 'z'));
+    }
+
+    @Test
+    void getWordIdsWithLetterAtReturnsIdsOfWordsWithLetterAtPosition() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("bbcd");
+        wordList.addWord("cab");
+
+        assertArrayEquals(new int[]{0, 1}, wordList.getWordIdsWithLetterAt(1, 'b'));
+        assertArrayEquals(new int[]{1}, wordList.getWordIdsWithLetterAt(3, 'd'));
+        assertArrayEquals(new int[0], wordList.getWordIdsWithLetterAt(4, 'a'));
+        assertArrayEquals(new int[0], wordList.getWordIdsWithLetterAt(0, 'z'));
+    }
+
+    @Test
+    void wordIdIndexesOfViewExcludeLongerWords() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("abbc");
+
+        WordList view = wordList.withMaxLength(3);
+
+        assertArrayEquals(new int[]{0}, view.getWordIdsWithEnds(3, 'a', 'c'));
+        assertArrayEquals(new int[0], view.getWordIdsWithEnds(4, 'a', 'c'));
+        assertArrayEquals(new int[0], view.getWordIdsWithLength(4));
+        assertArrayEquals(new int[]{0}, view.getWordIdsWithLetterAt(2, 'c'));
+        assertArrayEquals(new int[]{0, 1}, wordList.getWordIdsWithLetterAt(0, 'a'));
+    }
+
+    @Test
+    void wordIdIndexesOfViewShareBucketsWithList() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("abbc");
+
+        WordList view = wordList.withMaxLength(3).withMaxLength(4);
+
+        assertSame(wordList.getWordIdsWithLength(3), view.getWordIdsWithLength(3));
+        assertSame(wordList.getWordIdsWithEnds(3, 'a', 'c'), view.getWordIdsWithEnds(3, 'a', 'c'));
+        assertSame(wordList.getWordIdsWithLetterAt(2, 'c'), view.getWordIdsWithLetterAt(2, 'c'));
+        assertArrayEquals(new int[]{0}, view.getWordIdsWithLetterAt(1, 'b'));
+    }
+
+    @Test
+    void addWordThrowsIllegalStateExceptionWhenIndexWasUsed() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.getWordIdsWithLength(3);
+
+        assertThrows(IllegalStateException.class, () -> wordList.addWord("abd"));
+    }
+
+    @Test
+    void getWordLetterSumReturnsSumOfLetterScores() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("abc");
+        wordList.addWord("klm");
+
+        assertEquals(0 + 1 + 2, wordList.getWordLetterSum(0));
+        assertEquals(0 + 1 + 2, wordList.getWordLetterSum(1));
+    }
+
+    @Test
+    void getNodeLetterSumReturnsSumOfPrefix() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("jump");
+
+        int node = wordList.getRootNode();
+        node = wordList.getChildNode(node, 'j');
+        node = wordList.getChildNode(node, 'u');
+
+        assertEquals(0, wordList.getNodeLetterSum(wordList.getRootNode()));
+        assertEquals(9 + 0, wordList.getNodeLetterSum(node));
+    }
+
     @Test
     void fromStreamReadsWordsFromStream() {
         InputStream inputStream = getClass().getResourceAsStream("/wordlist-small.txt");
@@ -87,4 +352,64 @@ class WordListTest {
         assertTrue(wordList.contains("wo"));
         assertTrue(wordList.contains("wor"));
     }
+
+    @Test
+    void fromBinaryFileReadsListWrittenByWriteBinary() throws IOException {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word");
+        wordList.addWord("world");
+        wordList.addWord("wo");
+        wordList.addWord("äbc");
+
+        WordList binaryWordList = writeAndReadBinary(wordList);
+
+        List<String> words = new ArrayList<>();
+        binaryWordList.forEach(words::add);
+
+        assertEquals(List.of("word", "world", "wo", "äbc"), words);
+        assertEquals(4, binaryWordList.getSize());
+        assertEquals(1, binaryWordList.getWordId("world"));
+        assertTrue(binaryWordList.contains("äbc"));
+        assertFalse(binaryWordList.contains("wor"));
+        assertTrue(binaryWordList.containsPrefix("wor"));
+        assertEquals(List.of("word"), binaryWordList.getMatchingWords("w??d"));
+        assertEquals(wordList.getLetterIndex('ä'), binaryWordList.getLetterIndex('ä'));
+        assertEquals(wordList.getWordLetterSum(1), binaryWordList.getWordLetterSum(1));
+    }
+
+    @Test
+    void fromBinaryFileReturnsFrozenList() throws IOException {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word");
+
+        WordList binaryWordList = writeAndReadBinary(wordList);
+
+        assertThrows(IllegalStateException.class, () -> binaryWordList.addWord("words"));
+        assertEquals(0, binaryWordList.withMaxLength(3).getSize());
+    }
+
+    @Test
+    void writeBinaryThrowsIllegalStateExceptionForView() {
+        WordList wordList = new WordList();
+
+        wordList.addWord("word");
+
+        assertThrows(IllegalStateException.class, () -> wordList.withMaxLength(3).writeBinary(OutputStream.nullOutputStream()));
+    }
+
+    private WordList writeAndReadBinary(WordList wordList) throws IOException {
+        Path file = Files.createTempFile("wordlist", ".bin");
+
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(file)) {
+                wordList.writeBinary(outputStream);
+            }
+
+            return WordList.fromBinaryFile(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.jaspervanmerle.ptp2021.model;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,4 +37,27 @@ class MoveTest {
 
         assertEquals("4,2,V,prodrive", move.toString());
     }
+
+    @Test
+    void parseReturnsMoveInSubmissionFormat() {
+        Move move = Move.parse("4,2,V,prodrive");
+
+        assertEquals(2, move.getStartX());
+        assertEquals(4, move.getStartY());
+        assertEquals(Direction.Vertical, move.getDirection());
+        assertEquals("prodrive", move.getWord());
+    }
+
+    @Test
+    void parseIsInverseOfToString() {
+        Move move = new Move(13, 7, Direction.Horizontal, "contest");
+
+        assertEquals(move.toString(), Move.parse(move.toString()).toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "4,2,V", "4,2,V,", "4,2,X,prodrive", "4,2,HV,prodrive", "a,2,V,prodrive", "4,2,V,prodrive,extra"})
+    void parseThrowsIllegalArgumentExceptionWhenMoveIsInvalid(String str) {
+        assertThrows(IllegalArgumentException.class, () -> Move.parse(str));
+    }
 }